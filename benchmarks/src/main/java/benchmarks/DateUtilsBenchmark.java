@@ -0,0 +1,63 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import utils.DateUtils;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link DateUtils} functions with the inputs the bot handles: user-typed dates and NASA timestamps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateUtilsBenchmark {
+    @Param({"2024-03-14", "2024-3-14", "14.03.2024"})
+    private String inputDate;
+    private LocalDate date;
+
+    @Setup
+    public void setUp() {
+        date = LocalDate.of(2024, 3, 14);
+    }
+
+    @Benchmark
+    public LocalDate parseDate() {
+        return DateUtils.parseDate(inputDate);
+    }
+
+    @Benchmark
+    public boolean isValidDateFormat() {
+        return DateUtils.isValidDateFormat("yyyy-MM-dd", inputDate);
+    }
+
+    @Benchmark
+    public String dateFormatter() {
+        return DateUtils.dateFormatter("2024-03-14", "yyyy-MM-dd", "MMM d, yyyy", Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public String dateTimeFormatter() {
+        return DateUtils.dateTimeFormatter("2024-03-14 00:13:03", "yyyy-MM-dd HH:mm:ss", "MMM d, yyyy HH:mm:ss", Locale.ENGLISH);
+    }
+
+    @Benchmark
+    public boolean compareDates() {
+        return DateUtils.compareDates("2015-06-13", "2024-03-14");
+    }
+
+    @Benchmark
+    public boolean isFutureDateString() {
+        return DateUtils.isFutureDate("2024-03-14");
+    }
+
+    @Benchmark
+    public boolean isFutureDate() {
+        return DateUtils.isFutureDate(date);
+    }
+}
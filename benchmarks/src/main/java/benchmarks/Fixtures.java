@@ -0,0 +1,36 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * The {@code Fixtures} class loads the recorded NASA API responses the benchmarks run on.
+ */
+public class Fixtures {
+    public static final String APOD = "apod.json";
+    public static final String EPIC = "epic.json";
+    public static final String ROVER_LATEST = "rover-latest.json";
+    public static final String ROVER_PHOTOS = "rover-photos.json";
+    public static final String NASA_IMAGE = "nasa-image.json";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Loads a fixture from the classpath.
+     *
+     * @param name the file name of the fixture.
+     * @return the content of the fixture.
+     * @throws UncheckedIOException if the fixture cannot be read.
+     */
+    public static byte[] load(String name) {
+        try (InputStream inputStream = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (inputStream == null)
+                throw new IOException("Fixture not found: " + name);
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import nasa_services.apod.apod_utils.ApodImageCollection;
+import nasa_services.client.NasaJson;
+import nasa_services.epic.epic_utils.EpicImageCollection;
+import nasa_services.mars_rover.RoverPhotoParser;
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import nasa_services.nasa_image.image_utils.NasaImageCollection;
+import org.openjdk.jmh.annotations.*;
+import sessions.RecentItems;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the deserialization of the recorded NASA API responses.
+ * <p>The rover feeds are read both as a whole tree and by {@link RoverPhotoParser}, which binds only the photos it keeps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonParsingBenchmark {
+    private static final Set<String> CURIOSITY_CAMERAS = Set.of("FHAZ", "RHAZ", "NAVCAM");
+    private static final Set<String> PERSEVERANCE_CAMERAS = Set.of("REAR_HAZCAM_RIGHT", "REAR_HAZCAM_LEFT", "FRONT_HAZCAM_RIGHT_A",
+            "FRONT_HAZCAM_LEFT_A", "NAVCAM_RIGHT", "NAVCAM_LEFT", "SUPERCAM_RMI");
+
+    private byte[] apod;
+    private byte[] epic;
+    private byte[] roverLatest;
+    private byte[] roverPhotos;
+    private byte[] nasaImage;
+    private RecentItems recentPhotos;
+
+    @Setup
+    public void setUp() {
+        apod = Fixtures.load(Fixtures.APOD);
+        epic = Fixtures.load(Fixtures.EPIC);
+        roverLatest = Fixtures.load(Fixtures.ROVER_LATEST);
+        roverPhotos = Fixtures.load(Fixtures.ROVER_PHOTOS);
+        nasaImage = Fixtures.load(Fixtures.NASA_IMAGE);
+        recentPhotos = new RecentItems(20);
+    }
+
+    @Benchmark
+    public ApodImageCollection apod() throws IOException {
+        return NasaJson.APOD.readValue(apod);
+    }
+
+    @Benchmark
+    public List<EpicImageCollection> epic() throws IOException {
+        return NasaJson.EPIC_IMAGES.readValue(epic);
+    }
+
+    @Benchmark
+    public NasaImageCollection nasaImage() throws IOException {
+        return NasaJson.NASA_IMAGE.readValue(nasaImage);
+    }
+
+    @Benchmark
+    public JsonNode roverLatestTree() throws IOException {
+        return NasaJson.MAPPER.readTree(roverLatest);
+    }
+
+    @Benchmark
+    public List<MarsPhotos> roverLatestFilter() throws IOException {
+        return RoverPhotoParser.filter(roverLatest, CURIOSITY_CAMERAS);
+    }
+
+    @Benchmark
+    public JsonNode roverPhotosTree() throws IOException {
+        return NasaJson.MAPPER.readTree(roverPhotos);
+    }
+
+    @Benchmark
+    public MarsPhotos roverPhotosSample() throws IOException {
+        return RoverPhotoParser.sample(roverPhotos, PERSEVERANCE_CAMERAS, recentPhotos);
+    }
+}
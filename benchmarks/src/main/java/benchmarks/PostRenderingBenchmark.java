@@ -0,0 +1,77 @@
+package benchmarks;
+
+import nasa_services.apod.Apod;
+import nasa_services.apod.apod_utils.ApodImageCollection;
+import nasa_services.client.NasaJson;
+import nasa_services.epic.Epic;
+import nasa_services.epic.epic_utils.EpicImageCollection;
+import nasa_services.mars_rover.MarsRover;
+import nasa_services.mars_rover.RoverPhotoParser;
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import nasa_services.nasa_image.NasaImage;
+import nasa_services.nasa_image.image_utils.Items;
+import nasa_services.nasa_image.image_utils.NasaImageCollection;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the rendering of the posts sent to users from the parsed recorded NASA API responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostRenderingBenchmark {
+    private ApodImageCollection apod;
+    private EpicImageCollection epic;
+    private MarsPhotos marsPhoto;
+    private Items nasaImage;
+    private String description;
+
+    @Setup
+    public void setUp() throws IOException {
+        apod = NasaJson.APOD.readValue(Fixtures.load(Fixtures.APOD));
+        List<EpicImageCollection> epicImages = NasaJson.EPIC_IMAGES.readValue(Fixtures.load(Fixtures.EPIC));
+        epic = epicImages.getFirst();
+        marsPhoto = RoverPhotoParser.filter(Fixtures.load(Fixtures.ROVER_LATEST), Set.of("FHAZ", "RHAZ", "NAVCAM")).getFirst();
+        NasaImageCollection imageCollection = NasaJson.NASA_IMAGE.readValue(Fixtures.load(Fixtures.NASA_IMAGE));
+        nasaImage = imageCollection.getCollectionData().getItems().getFirst();
+        description = nasaImage.getData().getFirst().getDescription();
+    }
+
+    @Benchmark
+    public String apodPost() {
+        return Apod.createPost(apod);
+    }
+
+    @Benchmark
+    public String epicPost() {
+        return Epic.createPost(epic);
+    }
+
+    @Benchmark
+    public String marsRoverPost() {
+        return MarsRover.createPost(marsPhoto);
+    }
+
+    @Benchmark
+    public String marsRoverInfoPost() {
+        return MarsRover.createRoverInfoPost(marsPhoto.getRover());
+    }
+
+    @Benchmark
+    public String nasaImagePost() {
+        return NasaImage.createPost(nasaImage);
+    }
+
+    @Benchmark
+    public String nasaImageFilterText() {
+        return NasaImage.filterText(description);
+    }
+}
@@ -0,0 +1,78 @@
+package loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code LatencyRecorder} class collects the latencies of the handled updates by step and reports their percentiles.
+ */
+public class LatencyRecorder {
+    /**
+     * Map of steps (e.g. "/apod", "callback") to their latencies in nanoseconds.
+     */
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Records the latency of a step.
+     *
+     * @param step  the name of the step.
+     * @param nanos the latency in nanoseconds.
+     */
+    public void record(String step, long nanos) {
+        latencies.computeIfAbsent(step, key -> new ConcurrentLinkedQueue<>()).add(nanos);
+    }
+
+    /**
+     * Formats the report of all steps and of each step separately.
+     *
+     * @param elapsedNanos the duration of the whole test in nanoseconds.
+     * @return the report.
+     */
+    public String report(long elapsedNanos) {
+        StringBuilder report = new StringBuilder();
+        long[] all = latencies.values().stream().flatMap(Queue::stream).mapToLong(Long::longValue).toArray();
+        double seconds = (double) elapsedNanos / TimeUnit.SECONDS.toNanos(1);
+        report.append(String.format("Updates: %d in %.1f s, throughput %.1f updates/s%n", all.length, seconds, all.length / seconds));
+        report.append(String.format("%-32s %8s %10s %10s %10s %10s%n", "step", "count", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        appendRow(report, "all", all);
+        new TreeMap<>(latencies).forEach((step, values) ->
+                appendRow(report, step, values.stream().mapToLong(Long::longValue).toArray()));
+        return report.toString();
+    }
+
+    /**
+     * Appends the percentiles of a step to the report.
+     *
+     * @param report the report.
+     * @param step   the name of the step.
+     * @param values the latencies of the step in nanoseconds.
+     */
+    private static void appendRow(StringBuilder report, String step, long[] values) {
+        if (values.length == 0)
+            return;
+        Arrays.sort(values);
+        report.append(String.format("%-32s %8d %10.1f %10.1f %10.1f %10.1f%n", step, values.length,
+                percentile(values, 0.5), percentile(values, 0.9), percentile(values, 0.99), toMillis(values[values.length - 1])));
+    }
+
+    /**
+     * Gets the percentile of the sorted latencies by the nearest-rank method.
+     *
+     * @param sorted     the sorted latencies in nanoseconds.
+     * @param percentile the percentile, from 0 to 1.
+     * @return the latency at the percentile in milliseconds.
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return toMillis(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
@@ -0,0 +1,226 @@
+package loadtest;
+
+import app.AstroBot;
+import buttons.InlineButtonsWithDateOption;
+import buttons.InlineButtonsWithMarsRoverOption;
+import config.AstroBotConfig;
+import config.EndpointConfig;
+import config.HttpClientConfig;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.Chat;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * The {@code LoadDriver} class load tests the bot offline against the {@link StubServer}.
+ * <p>Simulated chats go through typical conversations (e.g. {@code /rover}, a rover button, a date) by passing
+ * synthetic updates to {@link commands.command_handlers.CommandHandler#handleUpdate(Update, AstroBot)}.
+ * The updates of a chat are handled one after another, like the bot's dispatcher does, while the chats run concurrently.
+ * Prints the throughput and the latency percentiles of each step, the errors injected by the stub server
+ * and the {@link errors.ServerConnectionError#FAILED_REQUEST} replies they caused.
+ * <p>The state and the NASA disk cache of the bot are kept in a temporary directory deleted after the run,
+ * so every run fetches from the stub server instead of the responses cached by a previous run.
+ * <p>Options (all optional): {@code --chats=2000 --concurrency=500 --port=0 --nasa-latency-ms=150
+ * --telegram-latency-ms=40 --jitter-ms=50 --error-rate=0.01 --telegram-rate-limit=100000 --telegram-connections=20}.
+ */
+public class LoadDriver {
+    private static final String CALLBACK = "callback:";
+    /**
+     * The conversations of the simulated chats. Steps starting with {@link LoadDriver#CALLBACK} are button presses.
+     */
+    private static final List<List<String>> CONVERSATIONS = List.of(
+            List.of("/apod", CALLBACK + InlineButtonsWithDateOption.DEFAULT),
+            List.of("/apod", CALLBACK + InlineButtonsWithDateOption.DATE, "2024-03-14"),
+            List.of("/epic", CALLBACK + InlineButtonsWithDateOption.DEFAULT),
+            List.of("/rover", CALLBACK + InlineButtonsWithMarsRoverOption.CURIOSITY, CALLBACK + InlineButtonsWithDateOption.DEFAULT),
+            List.of("/rover", CALLBACK + InlineButtonsWithMarsRoverOption.PERSEVERANCE, CALLBACK + InlineButtonsWithDateOption.DATE, "2023-12-09"),
+            List.of("/roverinfo", CALLBACK + InlineButtonsWithMarsRoverOption.CURIOSITY),
+            List.of("/image mars"),
+            List.of("/image nebula"),
+            List.of("/start", "/help"));
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int chats = Integer.parseInt(options.getOrDefault("chats", "2000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "500"));
+        StubServer stubServer = new StubServer(new StubServer.Settings(
+                Integer.parseInt(options.getOrDefault("port", "0")),
+                Long.parseLong(options.getOrDefault("nasa-latency-ms", "150")),
+                Long.parseLong(options.getOrDefault("telegram-latency-ms", "40")),
+                Long.parseLong(options.getOrDefault("jitter-ms", "50")),
+                Double.parseDouble(options.getOrDefault("error-rate", "0.01"))));
+        stubServer.start();
+
+        // Set before any configuration is loaded, so that the logging bot is pointed at the stub server as well
+        System.setProperty("endpoint.nasa.api", stubServer.getBaseUrl());
+        System.setProperty("endpoint.nasa.images", stubServer.getBaseUrl());
+        System.setProperty("endpoint.telegram.api", stubServer.getBaseUrl());
+        AstroBotConfig astroBotConfig = new AstroBotConfig();
+        astroBotConfig.setBotName("AstroLoadTestBot");
+        astroBotConfig.setBotToken("load-test");
+        astroBotConfig.setTelegramRateLimit(Double.parseDouble(options.getOrDefault("telegram-rate-limit", "100000")));
+        astroBotConfig.setTelegramMaxConnections(Integer.parseInt(options.getOrDefault("telegram-connections", "20")));
+        Path dataDirectory = Files.createTempDirectory("astrobot-loadtest");
+        astroBotConfig.setDataDirectory(dataDirectory.toString());
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        httpClientConfig.setDiskCacheFile(dataDirectory.resolve("nasa-cache.bin").toString());
+        AstroBot bot = new AstroBot(astroBotConfig, new EndpointConfig(), httpClientConfig);
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicInteger failedUpdates = new AtomicInteger();
+        Semaphore permits = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long chatId = 1; chatId <= chats; chatId++) {
+                permits.acquire();
+                long id = chatId;
+                executor.execute(() -> {
+                    try {
+                        runConversation(bot, id, CONVERSATIONS.get((int) (id % CONVERSATIONS.size())), recorder, failedUpdates);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.print(recorder.report(elapsed));
+        System.out.println("Updates that threw: " + failedUpdates.get());
+        System.out.println("Failed request replies: " + stubServer.getFailedRequestMessages());
+        System.out.println("Injected errors:");
+        new TreeMap<>(stubServer.getInjectedErrors()).forEach((route, count) -> System.out.println("  " + route + ": " + count.sum()));
+        System.out.println("Stub requests:");
+        new TreeMap<>(stubServer.getRequests()).forEach((route, count) -> System.out.println("  " + route + ": " + count.sum()));
+        stubServer.stop();
+        bot.getNasaHttpClient().close();
+        deleteRecursively(dataDirectory);
+        System.exit(0);
+    }
+
+    /**
+     * Deletes the directory with its content, reporting the files that cannot be deleted.
+     *
+     * @param directory the directory to delete.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete " + path + ": " + e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Passes the steps of the conversation to the bot one after another, recording the latency of each.
+     *
+     * @param bot           the bot under test.
+     * @param chatId        the ID of the simulated chat.
+     * @param conversation  the steps of the conversation.
+     * @param recorder      the recorder of the latencies.
+     * @param failedUpdates the number of updates that threw an exception, which does not include the failed requests
+     *                      the bot answered with an error message.
+     */
+    private static void runConversation(AstroBot bot, long chatId, List<String> conversation,
+                                        LatencyRecorder recorder, AtomicInteger failedUpdates) {
+        for (String step : conversation) {
+            Update update = step.startsWith(CALLBACK) ? createCallbackUpdate(chatId, step.substring(CALLBACK.length())) : createMessageUpdate(chatId, step);
+            String label = step.startsWith(CALLBACK) ? "button " + step.substring(CALLBACK.length()) : step.startsWith("/") ? step : "date";
+            long start = System.nanoTime();
+            try {
+                bot.getHandler().handleUpdate(update, bot).join();
+            } catch (Exception e) {
+                failedUpdates.incrementAndGet();
+            }
+            recorder.record(label, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Creates an update with a text message.
+     *
+     * @param chatId the ID of the chat.
+     * @param text   the text of the message.
+     * @return the update.
+     */
+    private static Update createMessageUpdate(long chatId, String text) {
+        Message message = createMessage(chatId);
+        message.setText(text);
+        Update update = new Update();
+        update.setMessage(message);
+        return update;
+    }
+
+    /**
+     * Creates an update with a button press.
+     *
+     * @param chatId the ID of the chat.
+     * @param data   the data of the pressed button.
+     * @return the update.
+     */
+    private static Update createCallbackUpdate(long chatId, String data) {
+        CallbackQuery callbackQuery = new CallbackQuery();
+        callbackQuery.setId(String.valueOf(chatId));
+        callbackQuery.setFrom(new User(chatId, "Load", false));
+        callbackQuery.setMessage(createMessage(chatId));
+        callbackQuery.setData(data);
+        Update update = new Update();
+        update.setCallbackQuery(callbackQuery);
+        return update;
+    }
+
+    /**
+     * Creates a message of the private chat of a simulated user.
+     *
+     * @param chatId the ID of the chat.
+     * @return the message.
+     */
+    private static Message createMessage(long chatId) {
+        Chat chat = new Chat(chatId, "private");
+        chat.setFirstName("Load");
+        Message message = new Message();
+        message.setMessageId((int) chatId);
+        message.setDate((int) (System.currentTimeMillis() / 1000));
+        message.setChat(chat);
+        message.setFrom(new User(chatId, "Load", false));
+        return message;
+    }
+
+    /**
+     * Parses the options in the format {@code --name=value}.
+     *
+     * @param args the command line arguments.
+     * @return the map of option names to their values.
+     * @throws IllegalArgumentException if an argument is not an option.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,273 @@
+package loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import errors.ServerConnectionError;
+import nasa_services.client.NasaJson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code StubServer} class stands in for NASA's and Telegram's APIs during load tests.
+ * <p>NASA requests are answered with the recorded fixtures, Telegram requests with minimal successful results.
+ * Every response is delayed by the configured latency, and the configured share of requests fails with a server error.
+ * <p>The injected errors are counted, and so are the {@link ServerConnectionError#FAILED_REQUEST} messages
+ * the bot sends, since the bot answers a failed request with that message instead of failing the update.
+ */
+public class StubServer {
+    private static final String TELEGRAM_ERROR = "{\"ok\":false,\"error_code\":500,\"description\":\"Internal Server Error\"}";
+    private static final String TELEGRAM_TRUE = "{\"ok\":true,\"result\":true}";
+
+    private final Settings settings;
+    private final Map<String, byte[]> fixtures = new ConcurrentHashMap<>();
+    /**
+     * Platform threads serve the requests, so the server keeps responding while the bot's virtual threads
+     * pin every carrier (the connection pool of the Telegram client blocks inside {@code synchronized}).
+     */
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger messageIds = new AtomicInteger();
+    /**
+     * Map of routes ("nasa:apod", "telegram:sendMessage", ...) to the number of requests received.
+     */
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+    /**
+     * Map of routes to the number of requests failed on purpose.
+     */
+    private final Map<String, LongAdder> injectedErrors = new ConcurrentHashMap<>();
+    private final LongAdder failedRequestMessages = new LongAdder();
+    private HttpServer server;
+
+    /**
+     * Constructs a new {@code StubServer}.
+     *
+     * @param settings the port, latencies and error rate of the server.
+     */
+    public StubServer(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Starts the server on the loopback interface.
+     *
+     * @throws IOException if the server cannot be started.
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.port()), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        if (server != null)
+            server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gets the base URL of the server, to be used for both NASA's and Telegram's APIs.
+     *
+     * @return the base URL without a trailing slash.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of requests received by route.
+     *
+     * @return the map of routes to their request counts.
+     */
+    public Map<String, LongAdder> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Gets the number of requests failed on purpose by route.
+     *
+     * @return the map of routes to their injected error counts.
+     */
+    public Map<String, LongAdder> getInjectedErrors() {
+        return injectedErrors;
+    }
+
+    /**
+     * Gets the number of {@link ServerConnectionError#FAILED_REQUEST} messages the bot has sent successfully.
+     *
+     * @return the number of failed request messages.
+     */
+    public long getFailedRequestMessages() {
+        return failedRequestMessages.sum();
+    }
+
+    /**
+     * Handles a request by replaying a fixture or a Telegram result after the configured latency.
+     *
+     * @param exchange the exchange containing the request.
+     */
+    private void handle(HttpExchange exchange) {
+        try (exchange) {
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+            String path = exchange.getRequestURI().getPath();
+            boolean telegram = path.startsWith("/bot");
+            String route = telegram ? "telegram:" + path.substring(path.lastIndexOf('/') + 1) : "nasa:" + getFixture(path);
+            requests.computeIfAbsent(route, key -> new LongAdder()).increment();
+            sleep(telegram ? settings.telegramLatencyMs() : settings.nasaLatencyMs());
+            boolean failed = ThreadLocalRandom.current().nextDouble() < settings.errorRate() && !route.equals("nasa:null");
+            if (failed)
+                injectedErrors.computeIfAbsent(route, key -> new LongAdder()).increment();
+            else if (route.equalsIgnoreCase("telegram:sendMessage") && isFailedRequestMessage(requestBody))
+                failedRequestMessages.increment();
+            if (telegram)
+                respond(exchange, failed ? 500 : 200, (failed ? TELEGRAM_ERROR : getTelegramResult(path.substring(path.lastIndexOf('/') + 1)))
+                        .getBytes(StandardCharsets.UTF_8));
+            else if (route.equals("nasa:null"))
+                respond(exchange, 404, new byte[0]);
+            else if (failed)
+                respond(exchange, 503, new byte[0]);
+            else
+                respond(exchange, 200, fixtures.computeIfAbsent(getFixture(path), StubServer::loadFixture));
+        } catch (IOException e) {
+            System.err.println("Stub server failed to respond: " + e);
+        }
+    }
+
+    /**
+     * Checks if the body of a {@code sendMessage} request carries the {@link ServerConnectionError#FAILED_REQUEST} message.
+     *
+     * @param body the JSON body of the request.
+     * @return {@code true} if the text of the message is the failed request message.
+     */
+    private static boolean isFailedRequestMessage(byte[] body) {
+        try {
+            return ServerConnectionError.FAILED_REQUEST.equals(NasaJson.MAPPER.readTree(body).path("text").asText());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the fixture answering the NASA request.
+     *
+     * @param path the path of the request.
+     * @return the file name of the fixture, or {@code null} if the path is unknown.
+     */
+    private static String getFixture(String path) {
+        if (path.startsWith("/planetary/apod"))
+            return "apod.json";
+        if (path.startsWith("/EPIC/api/natural"))
+            return "epic.json";
+        if (path.startsWith("/mars-photos/") && path.endsWith("/latest_photos"))
+            return "rover-latest.json";
+        if (path.startsWith("/mars-photos/") && path.endsWith("/photos"))
+            return "rover-photos.json";
+        if (path.startsWith("/search"))
+            return "nasa-image.json";
+        return null;
+    }
+
+    /**
+     * Gets a successful result of the Telegram method.
+     *
+     * @param method the name of the method.
+     * @return the response body.
+     */
+    private String getTelegramResult(String method) {
+        return switch (method) {
+            case "deleteMessage", "sendChatAction", "setWebhook", "answerCallbackQuery" -> TELEGRAM_TRUE;
+            case "sendMediaGroup" -> "{\"ok\":true,\"result\":[" + createMessage(true) + "," + createMessage(true) + "]}";
+            case "sendPhoto" -> "{\"ok\":true,\"result\":" + createMessage(true) + "}";
+            default -> "{\"ok\":true,\"result\":" + createMessage(false) + "}";
+        };
+    }
+
+    /**
+     * Creates a minimal sent message.
+     *
+     * @param photo whether the message contains a photo, whose {@code file_id} the bot caches.
+     * @return the message as JSON.
+     */
+    private String createMessage(boolean photo) {
+        long messageId = messageIds.incrementAndGet();
+        return "{\"message_id\":" + messageId + ",\"date\":" + System.currentTimeMillis() / 1000
+                + ",\"chat\":{\"id\":1,\"type\":\"private\"}"
+                + (photo ? ",\"photo\":[{\"file_id\":\"photo-" + messageId + "\",\"file_unique_id\":\"unique-" + messageId
+                + "\",\"width\":1280,\"height\":720}]" : "") + "}";
+    }
+
+    /**
+     * Sends the response.
+     *
+     * @param exchange the exchange containing the request.
+     * @param status   the HTTP status.
+     * @param body     the body of the response.
+     * @throws IOException if the response cannot be sent.
+     */
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0)
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+    }
+
+    /**
+     * Waits for the latency plus a random jitter.
+     *
+     * @param latencyMs the latency in milliseconds.
+     */
+    private void sleep(long latencyMs) {
+        long jitter = settings.jitterMs() > 0 ? ThreadLocalRandom.current().nextLong(settings.jitterMs() + 1) : 0;
+        try {
+            Thread.sleep(latencyMs + jitter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads a fixture from the classpath.
+     *
+     * @param name the file name of the fixture.
+     * @return the content of the fixture.
+     * @throws UncheckedIOException if the fixture cannot be read.
+     */
+    private static byte[] loadFixture(String name) {
+        try (InputStream inputStream = StubServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (inputStream == null)
+                throw new IOException("Fixture not found: " + name);
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The {@code Settings} record represents the behavior of the stub server.
+     *
+     * @param port              the port to listen on, or {@code 0} for any free port.
+     * @param nasaLatencyMs     the latency of NASA responses in milliseconds.
+     * @param telegramLatencyMs the latency of Telegram responses in milliseconds.
+     * @param jitterMs          the maximum random latency added to every response in milliseconds.
+     * @param errorRate         the share of requests failing with a server error, from 0 to 1.
+     */
+    public record Settings(int port, long nasaLatencyMs, long telegramLatencyMs, long jitterMs, double errorRate) {
+    }
+}
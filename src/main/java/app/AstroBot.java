@@ -2,23 +2,56 @@ package app;
 
 import commands.command_handlers.CommandHandler;
 import config.AstroBotConfig;
+import config.EndpointConfig;
+import config.HttpClientConfig;
+import config.RoverCameraConfig;
 import errors.ServerConnectionError;
+import logging.LogHandler;
 import logging.TelegramLog;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import metrics.BotMetrics;
 import nasa_services.apod.Apod;
+import nasa_services.client.NasaHttpClient;
 import nasa_services.epic.Epic;
 import nasa_services.mars_rover.MarsRover;
 import nasa_services.nasa_image.NasaImage;
+import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.ActionType;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendChatAction;
+import org.telegram.telegrambots.meta.api.methods.send.SendMediaGroup;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.send.SendPhoto;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage;
+import org.telegram.telegrambots.meta.api.objects.InputFile;
 import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.PhotoSize;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
-import utils.Emojis;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import sessions.ChatSession;
+import sessions.SessionStore;
+import subscriptions.ApodBroadcaster;
+import subscriptions.SubscriberStore;
+import telegram.FileIdCache;
+import telegram.SendPriority;
+import telegram.SendScheduler;
+import telegram.TelegramCall;
+import telegram.TelegramConnectionPool;
 
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * The {@code AstroBot} class represents the Telegram bot implementation for handling
@@ -28,21 +61,26 @@ import java.util.Arrays;
 @EqualsAndHashCode(callSuper = false)
 @Data
 public class AstroBot extends TelegramLongPollingBot {
+    /**
+     * The maximum length of the caption of a photo.
+     */
+    public static final int MAX_CAPTION_LENGTH = 1024;
+    private static final String FILE_IDS_FILE = "telegram-file-ids.bin";
+    private static final String SUBSCRIBERS_FILE = "subscribers.bin";
+    private static final String BROADCAST_CHECKPOINT_FILE = "apod-broadcast.checkpoint";
     private final AstroBotConfig astroBotConfig;
     private final CommandHandler handler;
+    private final UpdateDispatcher dispatcher;
     private final Apod apod;
     private final Epic epic;
     private final NasaImage nasaImage;
     private final MarsRover marsRover;
-    private boolean isApodCalled = false;
-    private boolean isEpicCalled = false;
-    private boolean isMessageSent = false;
-    private boolean isEpicDateListRetrieved = true;
-    private boolean isRoverCalled = false;
-    private boolean isCuriosityCalled = false;
-    private boolean isPerseveranceCalled = false;
-    private boolean isRoverInfoCalled = false;
-    private Integer lastMessageId;
+    private final NasaHttpClient nasaHttpClient;
+    private final SessionStore sessionStore;
+    private final SendScheduler sendScheduler;
+    private final SubscriberStore subscriberStore;
+    private final ApodBroadcaster apodBroadcaster;
+    private final FileIdCache fileIdCache;
 
     /**
      * Construct a new AstroBot instance with the provided configuration.
@@ -50,22 +88,93 @@ public class AstroBot extends TelegramLongPollingBot {
      * @param astroBotConfig the configuration for the bot.
      */
     public AstroBot(AstroBotConfig astroBotConfig) {
+        this(astroBotConfig, new EndpointConfig());
+    }
+
+    /**
+     * Construct a new AstroBot instance with the provided configuration, accessing the APIs at the provided base URLs.
+     *
+     * @param astroBotConfig the configuration for the bot.
+     * @param endpointConfig the base URLs of NASA's and Telegram's APIs.
+     */
+    public AstroBot(AstroBotConfig astroBotConfig, EndpointConfig endpointConfig) {
+        this(astroBotConfig, endpointConfig, new HttpClientConfig());
+    }
+
+    /**
+     * Construct a new AstroBot instance with the provided configuration, accessing the APIs at the provided base URLs
+     * through an HTTP client with the provided configuration, e.g. keeping its disk cache in another file.
+     * <p>The state of the bot is kept in the {@link AstroBotConfig#getDataDirectory() data directory}.
+     *
+     * @param astroBotConfig   the configuration for the bot.
+     * @param endpointConfig   the base URLs of NASA's and Telegram's APIs.
+     * @param httpClientConfig the configuration of the HTTP client accessing NASA's APIs.
+     */
+    public AstroBot(AstroBotConfig astroBotConfig, EndpointConfig endpointConfig, HttpClientConfig httpClientConfig) {
+        super(createBotOptions(endpointConfig));
         this.astroBotConfig = astroBotConfig;
         this.handler = new CommandHandler();
-        this.apod = new Apod();
-        this.epic = new Epic();
-        this.nasaImage = new NasaImage();
-        this.marsRover = new MarsRover();
+        this.dispatcher = new UpdateDispatcher(handler, this);
+        Path dataDirectory = Path.of(astroBotConfig.getDataDirectory());
+        this.nasaHttpClient = new NasaHttpClient(httpClientConfig);
+        this.apod = new Apod(nasaHttpClient, endpointConfig);
+        this.epic = new Epic(nasaHttpClient, endpointConfig, dataDirectory);
+        this.nasaImage = new NasaImage(nasaHttpClient, endpointConfig);
+        this.marsRover = new MarsRover(nasaHttpClient, new RoverCameraConfig(), endpointConfig);
+        this.sessionStore = new SessionStore();
+        this.sendScheduler = new SendScheduler(astroBotConfig.getTelegramRateLimit(),
+                TelegramConnectionPool.resize(this, astroBotConfig.getTelegramMaxConnections()));
+        this.subscriberStore = new SubscriberStore(dataDirectory.resolve(SUBSCRIBERS_FILE));
+        this.subscriberStore.load();
+        this.apodBroadcaster = new ApodBroadcaster(this, subscriberStore, dataDirectory.resolve(BROADCAST_CHECKPOINT_FILE));
+        this.fileIdCache = new FileIdCache(dataDirectory.resolve(FILE_IDS_FILE));
+        this.fileIdCache.load();
+        registerQueueMetrics();
+    }
+
+    /**
+     * Creates the options of the bot pointing at the Telegram Bot API of the provided configuration.
+     *
+     * @param endpointConfig the base URLs of the APIs.
+     * @return the options of the bot.
+     */
+    private static DefaultBotOptions createBotOptions(EndpointConfig endpointConfig) {
+        DefaultBotOptions options = new DefaultBotOptions();
+        options.setBaseUrl(endpointConfig.getTelegramApiUrl() + "/bot");
+        return options;
+    }
+
+    /**
+     * Registers the sizes of the bot's queues in {@link BotMetrics}.
+     */
+    private void registerQueueMetrics() {
+        BotMetrics.queueSize("telegram_send", sendScheduler::getQueueSize);
+        BotMetrics.queueSize("active_chats", dispatcher::getActiveChats);
+        BotMetrics.queueSize("sessions", sessionStore::size);
+        BotMetrics.queueSize("log_shipper", LogHandler.getShipper()::getQueueSize);
+        BotMetrics.queueSize("apod_subscribers", subscriberStore::size);
+        BotMetrics.queueSize("telegram_file_ids", fileIdCache::size);
     }
 
     /**
-     * Handles incoming updates received by the bot.
+     * Gets the conversation session of the specified chat.
+     *
+     * @param chatId the ID of the chat.
+     * @return the {@link ChatSession} of the chat.
+     */
+    public ChatSession getSession(Long chatId) {
+        return sessionStore.getSession(chatId);
+    }
+
+    /**
+     * Handles incoming updates received by the bot by passing them to the {@link UpdateDispatcher},
+     * so that a slow request of one chat does not hold up the others.
      *
      * @param update the incoming update.
      */
     @Override
     public void onUpdateReceived(Update update) {
-        handler.handleUpdate(update, this);
+        dispatcher.dispatch(update);
     }
 
     /**
@@ -88,8 +197,39 @@ public class AstroBot extends TelegramLongPollingBot {
         return astroBotConfig.getBotToken();
     }
 
+    /**
+     * Sends an interactive request to the specified chat through the {@link SendScheduler},
+     * waiting for the rate limits of Telegram if necessary.
+     *
+     * @param chatId the ID of the chat the request is sent to.
+     * @param method the request to be sent.
+     * @param <T>    the type of the result.
+     * @param <M>    the type of the request.
+     * @return the result of the request.
+     * @throws TelegramApiException if the request fails.
+     */
+    public <T extends Serializable, M extends BotApiMethod<T>> T send(Long chatId, M method) throws TelegramApiException {
+        return send(chatId, SendPriority.INTERACTIVE, () -> execute(method));
+    }
+
+    /**
+     * Sends a request to the specified chat through the {@link SendScheduler},
+     * waiting for the rate limits of Telegram if necessary.
+     *
+     * @param chatId   the ID of the chat the request is sent to.
+     * @param priority the priority of the request.
+     * @param call     the request to be sent.
+     * @param <T>      the type of the result.
+     * @return the result of the request.
+     * @throws TelegramApiException if the request fails.
+     */
+    public <T> T send(Long chatId, SendPriority priority, TelegramCall<T> call) throws TelegramApiException {
+        return sendScheduler.send(chatId, priority, call);
+    }
+
     /**
      * Sends a message to a specified chat.
+     * <p>A failure is only logged, since reporting it with another message would most likely fail as well.
      *
      * @param chatId     the ID of the chat where the message should be sent.
      * @param textToSend the text to be sent.
@@ -99,9 +239,41 @@ public class AstroBot extends TelegramLongPollingBot {
         message.setChatId(chatId);
         message.setText(textToSend);
         try {
-            Message msg = execute(message);
-            if (textToSend.equals(Emojis.SAND_WATCHES + "Fetching..."))
-                lastMessageId = msg.getMessageId();
+            send(chatId, message);
+        } catch (TelegramApiException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Sends a text message to the specified chat through the {@link SendScheduler}.
+     *
+     * @param chatId         the ID of the chat where the message should be sent.
+     * @param priority       the priority of the message.
+     * @param textToSend     the text to be sent.
+     * @param disablePreview whether the preview of the first link in the text is disabled.
+     * @throws TelegramApiException if the request fails.
+     */
+    public void sendMessage(Long chatId, SendPriority priority, String textToSend, boolean disablePreview) throws TelegramApiException {
+        SendMessage message = new SendMessage();
+        message.setChatId(chatId);
+        message.setText(textToSend);
+        message.setDisableWebPagePreview(disablePreview);
+        send(chatId, priority, () -> execute(message));
+    }
+
+    /**
+     * Sends a photo with its caption to the specified chat.
+     * <p>A failure is reported with {@link ServerConnectionError#FAILED_REQUEST} and logged.
+     *
+     * @param chatId   the ID of the chat where the photo should be sent.
+     * @param imageUrl the URL of the image, or {@code null} to send the caption alone.
+     * @param caption  the caption of the photo.
+     * @see AstroBot#sendPhoto(Long, SendPriority, String, String)
+     */
+    public void sendPhoto(Long chatId, String imageUrl, String caption) {
+        try {
+            sendPhoto(chatId, SendPriority.INTERACTIVE, imageUrl, caption);
         } catch (TelegramApiException e) {
             sendMessage(chatId, ServerConnectionError.FAILED_REQUEST);
             TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
@@ -109,26 +281,247 @@ public class AstroBot extends TelegramLongPollingBot {
     }
 
     /**
-     * Sends a request to fetch and send an image to the specified chat.
+     * Sends a photo with its caption to the specified chat through the {@link SendScheduler}.
+     * <p>If the image has been sent before, it is sent by the {@code file_id} kept in the {@link FileIdCache},
+     * so Telegram neither downloads nor stores it again. Otherwise it is sent by its URL and the returned {@code file_id}
+     * is cached. A {@code file_id} rejected by Telegram is forgotten and the image is sent by its URL instead.
+     * <p>A caption longer than {@link AstroBot#MAX_CAPTION_LENGTH} is split at a line break, and the rest is sent
+     * as a text message without link preview. If Telegram cannot fetch the image (e.g. it is too large),
+     * the whole caption is sent as a text message, leaving the image to the link preview.
      *
-     * @param chatId   the ID of the chat where the image should be sent.
-     * @param imageUrl the URL of the image to be sent.
+     * @param chatId   the ID of the chat where the photo should be sent.
+     * @param priority the priority of the messages.
+     * @param imageUrl the URL of the image, or {@code null} to send the caption alone.
+     * @param caption  the caption of the photo.
+     * @throws TelegramApiException if a request fails.
      */
-    public void sendImageRequest(Long chatId, String imageUrl) {
-        if (!isMessageSent) {
-            sendMessage(chatId, Emojis.SAND_WATCHES + "Fetching...");
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException e) {
-                sendMessage(chatId, ServerConnectionError.FAILED_REQUEST);
-                TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+    public void sendPhoto(Long chatId, SendPriority priority, String imageUrl, String caption) throws TelegramApiException {
+        if (imageUrl == null) {
+            sendMessage(chatId, priority, caption, false);
+            return;
+        }
+        String key = NasaHttpClient.withoutApiKey(imageUrl);
+        int split = findCaptionSplit(caption);
+        String photoCaption = caption.substring(0, split);
+        String fileId = fileIdCache.get(key);
+        Message message = null;
+        if (fileId != null) {
+            message = executePhoto(chatId, priority, fileId, photoCaption);
+            if (message == null)
+                fileIdCache.remove(key);
+        }
+        if (message == null) {
+            message = executePhoto(chatId, priority, imageUrl, photoCaption);
+            if (message == null) {
+                sendMessage(chatId, priority, caption, false);
+                return;
             }
-            deleteMessage(chatId, lastMessageId);
+            cacheFileId(key, message);
         }
-        isMessageSent = true;
+        if (split < caption.length())
+            sendMessage(chatId, priority, caption.substring(split).strip(), true);
+    }
+
+    /**
+     * Sends a photo by its {@code file_id} or URL.
+     *
+     * @param chatId   the ID of the chat where the photo should be sent.
+     * @param priority the priority of the message.
+     * @param photo    the {@code file_id} or URL of the photo.
+     * @param caption  the caption of the photo.
+     * @return the sent message, or {@code null} if Telegram has rejected the photo.
+     * @throws TelegramApiException if the request fails for another reason.
+     */
+    private Message executePhoto(Long chatId, SendPriority priority, String photo, String caption) throws TelegramApiException {
+        SendPhoto sendPhoto = new SendPhoto(String.valueOf(chatId), new InputFile(photo));
+        sendPhoto.setCaption(caption);
+        try {
+            return send(chatId, priority, () -> execute(sendPhoto));
+        } catch (TelegramApiRequestException e) {
+            if (Integer.valueOf(400).equals(e.getErrorCode()))
+                return null;
+            throw e;
+        }
+    }
+
+    /**
+     * Caches the {@code file_id} of the largest size of the sent photo.
+     *
+     * @param key     the URL of the image without the API key.
+     * @param message the sent message.
+     */
+    private void cacheFileId(String key, Message message) {
+        if (message != null && message.hasPhoto())
+            message.getPhoto().stream()
+                    .max(Comparator.comparing(PhotoSize::getWidth))
+                    .ifPresent(photoSize -> fileIdCache.put(key, photoSize.getFileId()));
+    }
+
+    /**
+     * Finds where the caption is split to fit in {@link AstroBot#MAX_CAPTION_LENGTH},
+     * preferring the last line break and then the last space before the limit.
+     *
+     * @param caption the caption of a photo.
+     * @return the length of the part sent as the caption.
+     */
+    private static int findCaptionSplit(String caption) {
+        if (caption.length() <= MAX_CAPTION_LENGTH)
+            return caption.length();
+        int split = caption.lastIndexOf('\n', MAX_CAPTION_LENGTH);
+        if (split <= 0)
+            split = caption.lastIndexOf(' ', MAX_CAPTION_LENGTH);
+        return split <= 0 ? MAX_CAPTION_LENGTH : split;
+    }
+
+    /**
+     * Fetches an image post while showing the "typing..." chat action, then sends it to the specified chat.
+     *
+     * @param chatId       the ID of the chat where the image should be sent.
+     * @param imageRequest the request starting the fetch of the post with the image URL.
+     * @return the future completed once the post is sent.
+     * @see AstroBot#sendImageRequest(Long, Supplier, Consumer)
+     */
+    public CompletableFuture<Void> sendImageRequest(Long chatId, Supplier<CompletableFuture<String>> imageRequest) {
+        return sendImageRequest(chatId, imageRequest, post -> sendMessage(chatId, post));
+    }
+
+    /**
+     * Fetches the result of a request while showing the "typing..." chat action, then passes it to the sender.
+     * <p>No thread waits for the request: the sender runs once the result arrives. If the request fails,
+     * {@link ServerConnectionError#FAILED_REQUEST} is sent to the chat instead and the failure is logged,
+     * unless the circuit of the NASA endpoint is open.
+     * <p>A result that is already available, e.g. from a cache, is sent at once without a chat action.
+     * Otherwise the result is sent once the chat action in flight, if any, has been answered by Telegram,
+     * so the action never arrives after the reply.
+     *
+     * @param chatId       the ID of the chat where the result should be sent.
+     * @param imageRequest the request starting the fetch of the result.
+     * @param sender       the action sending the result to the chat.
+     * @param <T>          the type of the result.
+     * @return the future completed once the result or the error message is sent.
+     */
+    public <T> CompletableFuture<Void> sendImageRequest(Long chatId, Supplier<CompletableFuture<T>> imageRequest, Consumer<T> sender) {
+        CompletableFuture<T> request;
+        try {
+            request = imageRequest.get();
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        if (request.isDone())
+            return request.handle((result, throwable) -> {
+                sendResult(chatId, result, throwable, sender);
+                return null;
+            });
+        ChatActionIndicator indicator = showChatAction(chatId);
+        return request.handle((result, throwable) -> indicator.close()
+                        .thenRun(() -> sendResult(chatId, result, throwable, sender)))
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Sends the result of a request to the chat, or {@link ServerConnectionError#FAILED_REQUEST} if the request has failed.
+     *
+     * @param chatId    the ID of the chat where the result should be sent.
+     * @param result    the result of the request.
+     * @param throwable the failure of the request, or {@code null} if it has succeeded.
+     * @param sender    the action sending the result to the chat.
+     * @param <T>       the type of the result.
+     */
+    private <T> void sendResult(Long chatId, T result, Throwable throwable, Consumer<T> sender) {
+        if (throwable == null) {
+            sender.accept(result);
+            return;
+        }
+        sendMessage(chatId, ServerConnectionError.FAILED_REQUEST);
+        NasaHttpClient.logFailure(throwable);
+    }
+
+    /**
+     * Starts showing the "typing..." chat action in the specified chat until the returned indicator is closed.
+     *
+     * @param chatId the ID of the chat where the action should be shown.
+     * @return the started {@link ChatActionIndicator}.
+     */
+    public ChatActionIndicator showChatAction(Long chatId) {
+        return new ChatActionIndicator(this, chatId, ActionType.TYPING);
+    }
+
+    /**
+     * Sends a chat action to the specified chat.
+     * <p>Chat actions bypass the rate limits of the {@link SendScheduler}, since they do not count as messages and are only a hint.
+     *
+     * @param chatId     the ID of the chat where the action should be shown.
+     * @param actionType the type of the action.
+     */
+    public void sendChatAction(Long chatId, ActionType actionType) {
+        SendChatAction sendChatAction = new SendChatAction();
+        sendChatAction.setChatId(String.valueOf(chatId));
+        sendChatAction.setAction(actionType);
         try {
-            sendMessage(chatId, imageUrl);
-        } catch (Exception e) {
+            sendScheduler.sendUnpaced(() -> execute(sendChatAction));
+        } catch (TelegramApiException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Sends a group of photos to the specified chat as a single message.
+     * <p>A group of a single photo is sent as a plain photo, since Telegram requires at least two items in a media group.
+     * Media groups are bulk deliveries, so interactive replies of other chats are sent before them.
+     * <p>Photos sent before are sent by their cached {@code file_id} (see {@link AstroBot#sendPhoto(Long, SendPriority, String, String)}).
+     * If Telegram rejects a group with cached {@code file_id}s, they are forgotten and the group is sent again by URL.
+     * <p>Captions longer than {@link AstroBot#MAX_CAPTION_LENGTH} are split like the caption of a single photo,
+     * and the rest of each is sent as a text message without link preview after the group.
+     *
+     * @param chatId     the ID of the chat where the photos should be sent.
+     * @param mediaGroup the photos to be sent by their URLs (at most 10).
+     */
+    public void sendMediaGroup(Long chatId, List<InputMedia> mediaGroup) {
+        try {
+            if (mediaGroup.size() == 1) {
+                InputMedia media = mediaGroup.getFirst();
+                sendPhoto(chatId, SendPriority.BULK, media.getMedia(), media.getCaption());
+                return;
+            }
+            List<String> captionRests = new ArrayList<>();
+            for (InputMedia media : mediaGroup) {
+                String caption = media.getCaption();
+                if (caption == null)
+                    continue;
+                int split = findCaptionSplit(caption);
+                if (split < caption.length()) {
+                    media.setCaption(caption.substring(0, split));
+                    captionRests.add(caption.substring(split).strip());
+                }
+            }
+            List<String> urls = mediaGroup.stream().map(InputMedia::getMedia).toList();
+            List<String> keys = urls.stream().map(NasaHttpClient::withoutApiKey).toList();
+            boolean reused = false;
+            for (int i = 0; i < mediaGroup.size(); i++) {
+                String fileId = fileIdCache.get(keys.get(i));
+                if (fileId != null) {
+                    mediaGroup.get(i).setMedia(fileId);
+                    reused = true;
+                }
+            }
+            SendMediaGroup sendMediaGroup = new SendMediaGroup(String.valueOf(chatId), mediaGroup);
+            List<Message> messages;
+            try {
+                messages = send(chatId, SendPriority.BULK, () -> execute(sendMediaGroup));
+            } catch (TelegramApiRequestException e) {
+                if (!reused || !Integer.valueOf(400).equals(e.getErrorCode()))
+                    throw e;
+                for (int i = 0; i < mediaGroup.size(); i++) {
+                    fileIdCache.remove(keys.get(i));
+                    mediaGroup.get(i).setMedia(urls.get(i));
+                }
+                messages = send(chatId, SendPriority.BULK, () -> execute(sendMediaGroup));
+            }
+            for (int i = 0; i < messages.size() && i < keys.size(); i++)
+                cacheFileId(keys.get(i), messages.get(i));
+            for (String captionRest : captionRests)
+                sendMessage(chatId, SendPriority.BULK, captionRest, true);
+        } catch (TelegramApiException e) {
             sendMessage(chatId, ServerConnectionError.FAILED_REQUEST);
             TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
         }
@@ -141,9 +534,11 @@ public class AstroBot extends TelegramLongPollingBot {
      * @param messageId the ID of the message to be deleted.
      */
     public void deleteMessage(Long chatId, Integer messageId) {
+        if (messageId == null)
+            return;
         DeleteMessage deleteMessage = new DeleteMessage(String.valueOf(chatId), messageId);
         try {
-            execute(deleteMessage);
+            send(chatId, deleteMessage);
         } catch (TelegramApiException e) {
             TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
         }
@@ -1,11 +1,15 @@
 package app;
 
+import metrics.MetricsServer;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import java.io.IOException;
+
 /**
- * The {@code BotInitializer} class initializes {@link AstroBot} by registering it with the Telegram Bots API.
+ * The {@code BotInitializer} class initializes {@link AstroBot} by registering it with the Telegram Bots API
+ * or, in webhook mode, by starting the {@link WebhookServer}.
  */
 public class BotInitializer {
     private final AstroBot telegramBot;
@@ -20,12 +24,21 @@ public class BotInitializer {
     }
 
     /**
-     * Initializes and registers {@link AstroBot}.
+     * Initializes and registers {@link AstroBot} for the mode set in {@link config.AstroBotConfig}.
+     * <p>Starts the {@link MetricsServer} first, unless the metrics are disabled, and the daily APOD broadcast last.
      *
      * @throws TelegramApiException if an error occurs while registering the bot.
+     * @throws IOException          if the webhook or the metrics server cannot be started.
      */
-    public void init() throws TelegramApiException {
-        TelegramBotsApi telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
-        telegramBotsApi.registerBot(telegramBot);
+    public void init() throws TelegramApiException, IOException {
+        if (telegramBot.getAstroBotConfig().getMetricsPort() > 0)
+            new MetricsServer(telegramBot.getAstroBotConfig().getMetricsPort()).start();
+        if (telegramBot.getAstroBotConfig().isWebhookMode()) {
+            new WebhookServer(telegramBot, telegramBot.getAstroBotConfig()).start();
+        } else {
+            TelegramBotsApi telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
+            telegramBotsApi.registerBot(telegramBot);
+        }
+        telegramBot.getApodBroadcaster().start();
     }
 }
@@ -0,0 +1,74 @@
+package app;
+
+import org.telegram.telegrambots.meta.api.methods.ActionType;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code ChatActionIndicator} class shows a chat action (e.g. "typing...") in a chat
+ * while a request is being processed.
+ * <p>Telegram clears a chat action after 5 seconds or as soon as a message is sent, so the action
+ * is repeated on a shared scheduler until the indicator is closed. Nothing blocks the processing thread.
+ * <p>The first action is sent only after {@link ChatActionIndicator#FIRST_ACTION_DELAY_MILLIS}, so a request
+ * answered quickly costs no chat action at all. Since an action sent right before the reply could reach Telegram
+ * after it and leave the action under the answer, the reply waits for {@link ChatActionIndicator#close()}.
+ */
+public class ChatActionIndicator {
+    private static final long FIRST_ACTION_DELAY_MILLIS = 500;
+    private static final long REPEAT_INTERVAL_MILLIS = 4000;
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "chat-action-indicator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AstroBot bot;
+    private final Long chatId;
+    private final ActionType actionType;
+    private final ScheduledFuture<?> repeatingAction;
+    /**
+     * The last chat action sent, completed once Telegram has answered it. Guarded by {@code this}.
+     */
+    private CompletableFuture<Void> actionInFlight = CompletableFuture.completedFuture(null);
+    private boolean closed;
+
+    /**
+     * Starts showing the chat action in the specified chat.
+     *
+     * @param bot        the instance of the {@link AstroBot}.
+     * @param chatId     the ID of the chat where the action should be shown.
+     * @param actionType the type of the action.
+     */
+    public ChatActionIndicator(AstroBot bot, Long chatId, ActionType actionType) {
+        this.bot = bot;
+        this.chatId = chatId;
+        this.actionType = actionType;
+        this.repeatingAction = SCHEDULER.scheduleAtFixedRate(this::sendAction,
+                FIRST_ACTION_DELAY_MILLIS, REPEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the chat action on a virtual thread, unless the indicator is closed or the previous action is still in flight.
+     */
+    private synchronized void sendAction() {
+        if (closed || !actionInFlight.isDone())
+            return;
+        actionInFlight = CompletableFuture.runAsync(() -> bot.sendChatAction(chatId, actionType), Thread::startVirtualThread);
+    }
+
+    /**
+     * Stops repeating the chat action.
+     *
+     * @return the future completed once no chat action of the indicator is in flight any more,
+     * after which the reply can be sent.
+     */
+    public synchronized CompletableFuture<Void> close() {
+        closed = true;
+        repeatingAction.cancel(false);
+        return actionInFlight.handle((result, throwable) -> null);
+    }
+}
@@ -0,0 +1,110 @@
+package app;
+
+import commands.command_handlers.CommandHandler;
+import logging.TelegramLog;
+import nasa_services.client.NasaHttpClient;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code UpdateDispatcher} class runs incoming updates concurrently on virtual threads
+ * while keeping the updates of a single chat strictly in the order they were received.
+ * <p>Every chat has its own serial queue, represented by the tail of a {@link CompletableFuture} chain
+ * keyed by the chat ID. The queue is removed once it drains, so idle chats hold no memory.
+ */
+public class UpdateDispatcher {
+    private final CommandHandler handler;
+    private final AstroBot bot;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    /**
+     * Map of chat IDs to the last queued update of that chat.
+     */
+    private final Map<Long, CompletableFuture<Void>> chatQueues = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new {@code UpdateDispatcher}.
+     *
+     * @param handler the {@link CommandHandler} that processes each update.
+     * @param bot     the instance of the {@link AstroBot}.
+     */
+    public UpdateDispatcher(CommandHandler handler, AstroBot bot) {
+        this.handler = handler;
+        this.bot = bot;
+    }
+
+    /**
+     * Queues the update behind the previous updates of the same chat.
+     * <p>Updates without a chat are processed immediately.
+     *
+     * @param update the incoming update.
+     */
+    public void dispatch(Update update) {
+        Long chatId = getChatId(update);
+        if (chatId == null) {
+            executor.execute(() -> process(update));
+            return;
+        }
+        CompletableFuture<Void> queued = chatQueues.compute(chatId, (id, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail)
+                        .thenComposeAsync(ignored -> process(update), executor));
+        queued.whenComplete((result, throwable) -> chatQueues.remove(chatId, queued));
+    }
+
+    /**
+     * Returns the number of chats that have updates queued or in progress.
+     *
+     * @return the number of active chat queues.
+     */
+    public int getActiveChats() {
+        return chatQueues.size();
+    }
+
+    /**
+     * Stops accepting updates and waits for the already queued ones to complete.
+     */
+    public void shutdown() {
+        executor.close();
+    }
+
+    /**
+     * Processes the update, making sure a failure does not break the queue of the chat.
+     * <p>The next update of the chat waits for the returned future, i.e. until the replies are sent,
+     * but no thread is blocked while the NASA requests of the update are in flight.
+     *
+     * @param update the update to process.
+     * @return the future completed once the update is processed, never exceptionally.
+     */
+    private CompletableFuture<Void> process(Update update) {
+        CompletableFuture<Void> result;
+        try {
+            result = handler.handleUpdate(update, bot);
+        } catch (Exception e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.exceptionally(throwable -> {
+            Throwable e = NasaHttpClient.unwrap(throwable);
+            TelegramLog.logging(e + "\n" + Arrays.toString(e.getStackTrace()));
+            return null;
+        });
+    }
+
+    /**
+     * Extracts the ID of the chat the update belongs to.
+     *
+     * @param update the incoming update.
+     * @return the chat ID, or {@code null} if the update is not bound to a chat.
+     */
+    public static Long getChatId(Update update) {
+        if (update.hasMessage())
+            return update.getMessage().getChatId();
+        if (update.hasCallbackQuery() && update.getCallbackQuery().getMessage() != null)
+            return update.getCallbackQuery().getMessage().getChatId();
+        return null;
+    }
+}
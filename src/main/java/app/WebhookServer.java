@@ -0,0 +1,124 @@
+package app;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import config.AstroBotConfig;
+import logging.TelegramLog;
+import nasa_services.client.NasaJson;
+import org.telegram.telegrambots.meta.api.methods.updates.SetWebhook;
+import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code WebhookServer} class receives updates from Telegram through a webhook,
+ * as an alternative to long polling.
+ * <p>It runs the JDK's embedded HTTP server on virtual threads, parses each posted update
+ * and passes it to {@link AstroBot#onUpdateReceived(Update)}, which queues it for the chat it belongs to.
+ * Telegram gets its response as soon as the update is parsed.
+ * <p>The server only starts with a secret token, and rejects every request that does not carry it,
+ * since anyone who finds the webhook URL could otherwise post forged updates.
+ */
+public class WebhookServer {
+    private static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+    /**
+     * The reader of updates, built from the shared mapper, which skips unknown properties.
+     */
+    private static final ObjectReader UPDATE_READER = NasaJson.MAPPER.readerFor(Update.class);
+
+    private final AstroBot telegramBot;
+    private final AstroBotConfig config;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer server;
+
+    /**
+     * Constructs a new {@code WebhookServer} for the provided bot.
+     *
+     * @param telegramBot the {@link AstroBot} instance.
+     * @param config      the configuration holding the webhook settings.
+     */
+    public WebhookServer(AstroBot telegramBot, AstroBotConfig config) {
+        this.telegramBot = telegramBot;
+        this.config = config;
+    }
+
+    /**
+     * Starts the HTTP server and registers the webhook with Telegram.
+     *
+     * @throws IOException           if the server cannot be started.
+     * @throws TelegramApiException  if the webhook cannot be registered.
+     * @throws IllegalStateException if no webhook secret is configured.
+     */
+    public void start() throws IOException, TelegramApiException {
+        if (config.getWebhookSecret() == null || config.getWebhookSecret().isBlank())
+            throw new IllegalStateException("The webhook cannot start without a secret token: set webhook.secret in astrobot.properties");
+        server = HttpServer.create(new InetSocketAddress(config.getWebhookPort()), 0);
+        server.createContext(config.getWebhookPath(), this::handle);
+        server.setExecutor(executor);
+        server.start();
+
+        telegramBot.execute(SetWebhook.builder()
+                .url(config.getWebhookUrl() + config.getWebhookPath())
+                .secretToken(config.getWebhookSecret())
+                .build());
+    }
+
+    /**
+     * Stops the HTTP server.
+     */
+    public void stop() {
+        if (server != null)
+            server.stop(0);
+        executor.close();
+    }
+
+    /**
+     * Handles a request posted by Telegram.
+     *
+     * @param exchange the exchange containing the request.
+     * @throws IOException if the response cannot be sent.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (!hasSecretToken(exchange)) {
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+            Update update;
+            try (InputStream body = exchange.getRequestBody()) {
+                update = UPDATE_READER.readValue(body);
+            } catch (IOException e) {
+                TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, -1);
+            telegramBot.onUpdateReceived(update);
+        }
+    }
+
+    /**
+     * Checks if the request carries the secret token of the webhook, comparing it in constant time.
+     *
+     * @param exchange the exchange containing the request.
+     * @return {@code true} if the token matches, {@code false} if it is missing or wrong.
+     */
+    private boolean hasSecretToken(HttpExchange exchange) {
+        String token = exchange.getRequestHeaders().getFirst(SECRET_TOKEN_HEADER);
+        return token != null && MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                config.getWebhookSecret().getBytes(StandardCharsets.UTF_8));
+    }
+}
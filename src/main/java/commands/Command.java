@@ -12,5 +12,7 @@ public class Command {
     public static final String ROVER = "/rover";
     public static final String ROVER_INFO = "/roverinfo";
     public static final String IMAGE = "/image";
+    public static final String SUBSCRIBE = "/subscribe";
+    public static final String UNSUBSCRIBE = "/unsubscribe";
 
 }
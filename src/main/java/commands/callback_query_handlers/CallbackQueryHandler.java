@@ -6,6 +6,7 @@ import buttons.InlineButtonsWithMarsRoverOption;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code CallbackQueryHandler} class routes callback queries to appropriate handlers based on the callback data.
@@ -35,10 +36,12 @@ public class CallbackQueryHandler {
      * @param callbackData the data associated with the callback query.
      * @param chatId       the ID of the chat where callback query originated.
      * @param bot          the instance  of the {@link AstroBot}.
+     * @return the future completed once the callback query is handled.
      */
-    public void handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
+    public CompletableFuture<Void> handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
         CallbackQueryHandlerInterface handler = callbackQueryHandler.get(callbackData);
         if (handler != null)
-            handler.handleCallbackQuery(callbackData, chatId, bot);
+            return handler.handleCallbackQuery(callbackData, chatId, bot);
+        return CompletableFuture.completedFuture(null);
     }
 }
\ No newline at end of file
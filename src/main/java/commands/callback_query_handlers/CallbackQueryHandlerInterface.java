@@ -2,6 +2,8 @@ package commands.callback_query_handlers;
 
 import app.AstroBot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The {@code CallbackQueryHandlerInterface} interface defines the contract for
  * handling callback queries received from inline buttons.
@@ -13,6 +15,7 @@ public interface CallbackQueryHandlerInterface {
      * @param callbackData the data associated with the callback query.
      * @param chatId       the ID of the chat where callback query originated.
      * @param bot          the instance  of the {@link AstroBot}.
+     * @return the future completed once the callback query is handled.
      */
-    void handleCallbackQuery(String callbackData, Long chatId, AstroBot bot);
+    CompletableFuture<Void> handleCallbackQuery(String callbackData, Long chatId, AstroBot bot);
 }
@@ -1,6 +1,9 @@
 package commands.callback_query_handlers;
 
 import app.AstroBot;
+import sessions.ChatSession;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * {@code CancelCallbackQueryHandler} class handles the {@link buttons.InlineButtonsWithDateOption#CANCEL}
@@ -8,14 +11,18 @@ import app.AstroBot;
  */
 public class CancelCallbackQueryHandler implements CallbackQueryHandlerInterface {
     /**
-     * Cancels the ongoing action by deleting the sent inline keyboard buttons.
+     * Cancels the ongoing action by deleting the sent inline keyboard buttons and resetting the chat session.
      *
      * @param callbackData the data associated with the callback query.
      * @param chatId       the ID of the chat where callback query originated.
      * @param bot          the instance  of the {@link AstroBot}.
+     * @return the future completed once the callback query is handled.
      */
     @Override
-    public void handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
-        bot.deleteMessage(chatId, bot.getLastMessageId());
+    public CompletableFuture<Void> handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
+        ChatSession session = bot.getSession(chatId);
+        bot.deleteMessage(chatId, session.getLastMessageId());
+        session.reset();
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -2,6 +2,8 @@ package commands.callback_query_handlers;
 
 import app.AstroBot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The {@code DateCallbackQueryHandler} class handles
  * {@link buttons.InlineButtonsWithDateOption#DATE} callback query.
@@ -14,11 +16,12 @@ public class DateCallbackQueryHandler implements CallbackQueryHandlerInterface {
      * @param callbackData the data associated with the callback query.
      * @param chatId       the ID of the chat where callback query originated.
      * @param bot          the instance  of the {@link AstroBot}.
+     * @return the future completed once the callback query is handled.
      */
     @Override
-    public void handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
-        bot.setMessageSent(false);
-        bot.deleteMessage(chatId, bot.getLastMessageId());
+    public CompletableFuture<Void> handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
+        bot.deleteMessage(chatId, bot.getSession(chatId).getLastMessageId());
         bot.sendMessage(chatId, "Please enter the date in the format [yyyy-mm-dd].\nFor example, 2024-04-24.");
+        return CompletableFuture.completedFuture(null);
     }
 }
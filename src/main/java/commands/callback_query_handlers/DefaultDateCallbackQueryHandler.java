@@ -4,6 +4,10 @@ import app.AstroBot;
 import nasa_services.apod.ApodUtils;
 import nasa_services.epic.EpicUtils;
 import nasa_services.mars_rover.MarsRoverUtils;
+import sessions.ChatSession;
+import sessions.ChatState;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code DefaultDateCallbackQueryHandler} class handles
@@ -18,20 +22,20 @@ public class DefaultDateCallbackQueryHandler implements CallbackQueryHandlerInte
      * @param callbackData the data associated with the callback query.
      * @param chatId       the ID of the chat where callback query originated.
      * @param bot          the instance  of the {@link AstroBot}.
+     * @return the future completed once the images are sent.
      */
     @Override
-    public void handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
-        bot.setMessageSent(false);
-        bot.deleteMessage(chatId, bot.getLastMessageId());
-        if (bot.isApodCalled()) {
-            ApodUtils.sendApodImageForDefaultDate(chatId, bot);
-            bot.setApodCalled(false);
-        } else if (bot.isEpicCalled()) {
-            EpicUtils.sendAllEpicImagesFordDefaultDate(chatId, bot);
-            bot.setEpicCalled(false);
-        } else {
-            MarsRoverUtils.sendMarsRoverImagesForDefaultDate(chatId, bot);
-            bot.setRoverCalled(false);
-        }
+    public CompletableFuture<Void> handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
+        ChatSession session = bot.getSession(chatId);
+        bot.deleteMessage(chatId, session.getLastMessageId());
+        CompletableFuture<Void> result;
+        if (session.getState() == ChatState.APOD)
+            result = ApodUtils.sendApodImageForDefaultDate(chatId, bot);
+        else if (session.getState() == ChatState.EPIC)
+            result = EpicUtils.sendAllEpicImagesFordDefaultDate(chatId, bot);
+        else
+            result = MarsRoverUtils.sendMarsRoverImagesForDefaultDate(chatId, bot);
+        session.reset();
+        return result;
     }
 }
@@ -8,8 +8,11 @@ import logging.TelegramLog;
 import nasa_services.mars_rover.MarsRover;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import sessions.ChatSession;
+import sessions.ChatState;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code CuriosityRoverCallbackQueryHandler} class handles
@@ -25,25 +28,27 @@ public class PerseveranceRoverCallbackQueryHandler implements CallbackQueryHandl
      * @param callbackData the data associated with the callback query.
      * @param chatId       the ID of the chat where callback query originated.
      * @param bot          the instance  of the {@link AstroBot}.
+     * @return the future completed once the callback query is handled.
      */
     @Override
-    public void handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
-        if (bot.isRoverCalled()) {
-            bot.setMessageSent(false);
-            bot.deleteMessage(chatId, bot.getLastMessageId());
-            bot.setPerseveranceCalled(true);
+    public CompletableFuture<Void> handleCallbackQuery(String callbackData, Long chatId, AstroBot bot) {
+        ChatSession session = bot.getSession(chatId);
+        if (session.getState().isRoverPhotoRequest()) {
+            bot.deleteMessage(chatId, session.getLastMessageId());
+            session.setState(ChatState.PERSEVERANCE);
             try {
-                Message msg = bot.execute(InlineButtonsWithDateOption.sendInlineKeyboardButtonWithDateOption(chatId));
-                bot.setLastMessageId(msg.getMessageId());
+                Message msg = bot.send(chatId, InlineButtonsWithDateOption.sendInlineKeyboardButtonWithDateOption(chatId));
+                session.setLastMessageId(msg.getMessageId());
             } catch (TelegramApiException e) {
                 bot.sendMessage(chatId, ServerConnectionError.FAILED_REQUEST);
                 TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
             }
-        } else if (bot.isRoverInfoCalled()) {
-            bot.deleteMessage(chatId, bot.getLastMessageId());
-            bot.sendMessage(chatId, bot.getMarsRover().getRoverInfo(MarsRover.MARS_PERSEVERANCE));
-            bot.setRoverInfoCalled(false);
+        } else if (session.getState() == ChatState.ROVER_INFO) {
+            bot.deleteMessage(chatId, session.getLastMessageId());
+            session.reset();
+            return bot.sendImageRequest(chatId, () -> bot.getMarsRover().getRoverInfo(MarsRover.MARS_PERSEVERANCE).thenApply(MarsRover::createRoverInfoPost));
         } else
             bot.sendMessage(chatId, UserInputError.UNRECOGNIZED_MESSAGE);
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -7,8 +7,11 @@ import logging.TelegramLog;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import sessions.ChatSession;
+import sessions.ChatState;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The{@code ApodCommandHandler} class handles the {@code /apod}command to retrieve Astronomy Picture of the Day.
@@ -19,18 +22,20 @@ public class ApodCommandHandler implements CommandHandlerInterface {
      *
      * @param update the update containing the command.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the command is handled.
      */
     @Override
-    public void handleCommand(Update update, AstroBot bot) {
-        bot.setApodCalled(true);
+    public CompletableFuture<Void> handleCommand(Update update, AstroBot bot) {
         Long chatId = update.getMessage().getChatId();
+        ChatSession session = bot.getSession(chatId);
+        session.setState(ChatState.APOD);
         try {
-            Message msg = bot.execute(InlineButtonsWithDateOption.sendInlineKeyboardButtonWithDateOption(chatId));
-            bot.setLastMessageId(msg.getMessageId());
+            Message msg = bot.send(chatId, InlineButtonsWithDateOption.sendInlineKeyboardButtonWithDateOption(chatId));
+            session.setLastMessageId(msg.getMessageId());
         } catch (TelegramApiException e) {
             bot.sendMessage(chatId, ServerConnectionError.FAILED_REQUEST);
             TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
         }
-
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -5,10 +5,12 @@ import commands.Command;
 import commands.callback_query_handlers.CallbackQueryHandler;
 import commands.fallback_handlers.DefaultFallbackHandler;
 import commands.fallback_handlers.FallbackHandlerInterface;
+import metrics.BotMetrics;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code CommandHandler} class handles incoming updates and routes them to appropriate command handlers.
@@ -44,6 +46,8 @@ public class CommandHandler {
         commandHandlers.put(Command.ROVER, new RoverCommandHandler());
         commandHandlers.put(Command.ROVER_INFO, new RoverCommandHandler());
         commandHandlers.put(Command.HELP, new HelpCommandHandler());
+        commandHandlers.put(Command.SUBSCRIBE, new SubscribeCommandHandler());
+        commandHandlers.put(Command.UNSUBSCRIBE, new UnsubscribeCommandHandler());
 
         fallbackHandler = new DefaultFallbackHandler();
         callbackQueryHandler = new CallbackQueryHandler();
@@ -51,22 +55,38 @@ public class CommandHandler {
 
     /**
      * Handles the incoming update and delegates to appropriate handlers.
+     * <p>The handlers return as soon as their NASA requests are started, and the returned future completes
+     * once the replies are sent. The time taken until then is recorded in {@link BotMetrics#commandDuration(String)}.
      *
      * @param update the incoming update containing the command.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the update is handled.
      */
-    public void handleUpdate(Update update, AstroBot bot) {
-        if (update.hasMessage() && update.getMessage().hasText()) {
-            String command = update.getMessage().getText();
-            CommandHandlerInterface handler = commandHandlers.get(command);
-            if (handler != null)
-                handler.handleCommand(update, bot);
-            else
-                fallbackHandler.handleFallback(command, update.getMessage().getChatId(), bot);
-        } else if (update.hasCallbackQuery()) {
-            String callback = update.getCallbackQuery().getData();
-            Long chatId = update.getCallbackQuery().getMessage().getChatId();
-            callbackQueryHandler.handleCallbackQuery(callback, chatId, bot);
+    public CompletableFuture<Void> handleUpdate(Update update, AstroBot bot) {
+        long start = System.nanoTime();
+        String label = "other";
+        CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+        try {
+            if (update.hasMessage() && update.getMessage().hasText()) {
+                String command = update.getMessage().getText();
+                CommandHandlerInterface handler = commandHandlers.get(command);
+                if (handler != null) {
+                    label = command.substring(1);
+                    result = handler.handleCommand(update, bot);
+                } else {
+                    label = command.startsWith(Command.IMAGE + " ") ? Command.IMAGE.substring(1) : "fallback";
+                    result = fallbackHandler.handleFallback(command, update.getMessage().getChatId(), bot);
+                }
+            } else if (update.hasCallbackQuery()) {
+                label = "callback";
+                String callback = update.getCallbackQuery().getData();
+                Long chatId = update.getCallbackQuery().getMessage().getChatId();
+                result = callbackQueryHandler.handleCallbackQuery(callback, chatId, bot);
+            }
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
         }
+        String commandLabel = label;
+        return result.whenComplete((ignored, throwable) -> BotMetrics.commandDuration(commandLabel).observeSince(start));
     }
 }
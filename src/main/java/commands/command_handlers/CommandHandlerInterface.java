@@ -3,6 +3,8 @@ package commands.command_handlers;
 import app.AstroBot;
 import org.telegram.telegrambots.meta.api.objects.Update;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * {@code CommandHandlerInterface} interface handles a command received by the bot.
  */
@@ -12,6 +14,7 @@ public interface CommandHandlerInterface {
      *
      * @param update the update containing the command.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the command is handled.
      */
-    void handleCommand(Update update, AstroBot bot);
+    CompletableFuture<Void> handleCommand(Update update, AstroBot bot);
 }
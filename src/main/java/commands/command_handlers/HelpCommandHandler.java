@@ -4,6 +4,8 @@ import app.AstroBot;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import utils.Emojis;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The {@code HelpCommandHandler} handles the {@code /help} command by providing detailed information about the bot's functionality.
  */
@@ -13,9 +15,10 @@ public class HelpCommandHandler implements CommandHandlerInterface {
      *
      * @param update the update containing the command.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the command is handled.
      */
     @Override
-    public void handleCommand(Update update, AstroBot bot) {
+    public CompletableFuture<Void> handleCommand(Update update, AstroBot bot) {
         Long chatId = update.getMessage().getChatId();
         String answer = "This Astro Explorer Bot uses NASA APIs to provide users with access to various NASA services.\n\n" +
                 "It enables users to fetch:\n" +
@@ -38,7 +41,12 @@ public class HelpCommandHandler implements CommandHandlerInterface {
                 "\nObtains information about the Curiosity or Perseverance rover.\n\n" +
                 "/image [topic]" +
                 "\nReceives a random image from the NASA Image Library based on the provided topic." +
-                "\nEx: /image Galaxy";
+                "\nEx: /image Galaxy\n\n" +
+                "/subscribe" +
+                "\nSends the Astronomy Picture of the Day to you every morning.\n\n" +
+                "/unsubscribe" +
+                "\nStops the daily Astronomy Picture of the Day.";
         bot.sendMessage(chatId, answer);
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -8,8 +8,11 @@ import logging.TelegramLog;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import sessions.ChatSession;
+import sessions.ChatState;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code RoverCommandHandler} handles the {@code /rover} and {@code /roverinfo} commands to fetch Mars Rover photos and information
@@ -22,20 +25,23 @@ public class RoverCommandHandler implements CommandHandlerInterface {
      *
      * @param update the update containing the command.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the command is handled.
      */
     @Override
-    public void handleCommand(Update update, AstroBot bot) {
+    public CompletableFuture<Void> handleCommand(Update update, AstroBot bot) {
         Long chatId = update.getMessage().getChatId();
+        ChatSession session = bot.getSession(chatId);
         if (update.getMessage().getText().equals(Command.ROVER))
-            bot.setRoverCalled(true);
+            session.setState(ChatState.ROVER);
         else if (update.getMessage().getText().equals(Command.ROVER_INFO))
-            bot.setRoverInfoCalled(true);
+            session.setState(ChatState.ROVER_INFO);
         try {
-            Message msg = bot.execute(InlineButtonsWithMarsRoverOption.sendInlineKeyboardButtonWithMarsRoverOption(chatId));
-            bot.setLastMessageId(msg.getMessageId());
+            Message msg = bot.send(chatId, InlineButtonsWithMarsRoverOption.sendInlineKeyboardButtonWithMarsRoverOption(chatId));
+            session.setLastMessageId(msg.getMessageId());
         } catch (TelegramApiException e) {
             bot.sendMessage(chatId, ServerConnectionError.FAILED_REQUEST);
             TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
         }
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -4,6 +4,8 @@ import app.AstroBot;
 import org.telegram.telegrambots.meta.api.objects.Update;
 import utils.Emojis;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * {@code StartCommandHandler} class handles the {@code /start} command to provide introductory message.
  */
@@ -13,12 +15,14 @@ public class StartCommandHandler implements CommandHandlerInterface {
      *
      * @param update the update containing the command.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the command is handled.
      */
     @Override
-    public void handleCommand(Update update, AstroBot bot) {
+    public CompletableFuture<Void> handleCommand(Update update, AstroBot bot) {
         Long chatId = update.getMessage().getChatId();
         String name = update.getMessage().getChat().getFirstName();
         String answer = "Hi" + Emojis.HELLO + ", " + name + "!\nI'm a bot that provides access to NASA services. \nType /help to get detailed information about my functionality.";
         bot.sendMessage(chatId, answer);
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -0,0 +1,29 @@
+package commands.command_handlers;
+
+import app.AstroBot;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code SubscribeCommandHandler} class handles the {@code /subscribe} command to subscribe the chat to the daily APOD.
+ */
+public class SubscribeCommandHandler implements CommandHandlerInterface {
+    /**
+     * Adds the chat to the {@link subscriptions.SubscriberStore} and confirms the subscription.
+     *
+     * @param update the update containing the command.
+     * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the command is handled.
+     */
+    @Override
+    public CompletableFuture<Void> handleCommand(Update update, AstroBot bot) {
+        Long chatId = update.getMessage().getChatId();
+        bot.getSession(chatId).reset();
+        String answer = bot.getSubscriberStore().subscribe(chatId)
+                ? "You are subscribed! The Astronomy Picture of the Day will be sent to you every morning.\nType /unsubscribe to stop it."
+                : "You are already subscribed to the Astronomy Picture of the Day.\nType /unsubscribe to stop it.";
+        bot.sendMessage(chatId, answer);
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,29 @@
+package commands.command_handlers;
+
+import app.AstroBot;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code UnsubscribeCommandHandler} class handles the {@code /unsubscribe} command to stop the daily APOD.
+ */
+public class UnsubscribeCommandHandler implements CommandHandlerInterface {
+    /**
+     * Removes the chat from the {@link subscriptions.SubscriberStore} and confirms it.
+     *
+     * @param update the update containing the command.
+     * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the command is handled.
+     */
+    @Override
+    public CompletableFuture<Void> handleCommand(Update update, AstroBot bot) {
+        Long chatId = update.getMessage().getChatId();
+        bot.getSession(chatId).reset();
+        String answer = bot.getSubscriberStore().unsubscribe(chatId)
+                ? "You are unsubscribed from the Astronomy Picture of the Day.\nType /subscribe to get it again."
+                : "You are not subscribed to the Astronomy Picture of the Day.\nType /subscribe to get it every morning.";
+        bot.sendMessage(chatId, answer);
+        return CompletableFuture.completedFuture(null);
+    }
+}
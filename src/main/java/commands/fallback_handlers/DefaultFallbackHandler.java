@@ -6,6 +6,10 @@ import errors.UserInputError;
 import nasa_services.apod.ApodUtils;
 import nasa_services.epic.EpicUtils;
 import nasa_services.mars_rover.MarsRoverUtils;
+import nasa_services.nasa_image.NasaImage;
+import sessions.ChatState;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code DefaultFallbackHandler} class implements the {@link FallbackHandlerInterface} interface
@@ -16,17 +20,19 @@ public class DefaultFallbackHandler implements FallbackHandlerInterface {
      * @param message the received message.
      * @param chatId  the ID of the chat where the fallback occurs.
      * @param bot     the instance of the {@link AstroBot}.
+     * @return the future completed once the message is handled.
      */
     @Override
-    public void handleFallback(String message, Long chatId, AstroBot bot) {
-        if (bot.isApodCalled())
-            handleApodFallback(message, chatId, bot);
-        else if (bot.isEpicCalled())
-            handleEpicFallback(message, chatId, bot);
-        else if (bot.isRoverCalled())
-            handleRoverFallback(message, chatId, bot);
+    public CompletableFuture<Void> handleFallback(String message, Long chatId, AstroBot bot) {
+        ChatState state = bot.getSession(chatId).getState();
+        if (state == ChatState.APOD)
+            return handleApodFallback(message, chatId, bot);
+        else if (state == ChatState.EPIC)
+            return handleEpicFallback(message, chatId, bot);
+        else if (state.isRoverPhotoRequest())
+            return handleRoverFallback(message, chatId, bot);
         else
-            handleImageFallback(message, chatId, bot);
+            return handleImageFallback(message, chatId, bot);
     }
 
     /**
@@ -35,11 +41,12 @@ public class DefaultFallbackHandler implements FallbackHandlerInterface {
      * @param message the received date.
      * @param chatId  the ID of the chat where the fallback occurs.
      * @param bot     the instance of the {@link AstroBot}.
+     * @return the future completed once the image is sent.
      */
-    private void handleApodFallback(String message, Long chatId, AstroBot bot) {
-        ApodUtils.sendApodImageForSpecificDate(chatId, message, bot);
-        bot.setMessageSent(false);
-        bot.setApodCalled(false);
+    private CompletableFuture<Void> handleApodFallback(String message, Long chatId, AstroBot bot) {
+        CompletableFuture<Void> result = ApodUtils.sendApodImageForSpecificDate(chatId, message, bot);
+        bot.getSession(chatId).reset();
+        return result;
     }
 
     /**
@@ -48,10 +55,12 @@ public class DefaultFallbackHandler implements FallbackHandlerInterface {
      * @param message the received date.
      * @param chatId  the ID of the chat where the fallback occurs.
      * @param bot     the instance of the {@link AstroBot}.
+     * @return the future completed once the images are sent.
      */
-    private void handleEpicFallback(String message, Long chatId, AstroBot bot) {
-        EpicUtils.sendAllEpicImagesForSpecifiedDate(chatId, message, bot);
-        bot.setEpicCalled(false);
+    private CompletableFuture<Void> handleEpicFallback(String message, Long chatId, AstroBot bot) {
+        CompletableFuture<Void> result = EpicUtils.sendAllEpicImagesForSpecifiedDate(chatId, message, bot);
+        bot.getSession(chatId).reset();
+        return result;
     }
 
     /**
@@ -60,12 +69,12 @@ public class DefaultFallbackHandler implements FallbackHandlerInterface {
      * @param message the received date
      * @param chatId  the ID of the chat where the fallback occurs.
      * @param bot     the instance of the {@link AstroBot}.
+     * @return the future completed once the image is sent.
      */
-    private void handleRoverFallback(String message, Long chatId, AstroBot bot) {
-        MarsRoverUtils.sendMarsRoverImagesForSpecifiedDate(chatId, message, bot);
-        bot.setRoverCalled(false);
-        bot.setCuriosityCalled(false);
-        bot.setPerseveranceCalled(false);
+    private CompletableFuture<Void> handleRoverFallback(String message, Long chatId, AstroBot bot) {
+        CompletableFuture<Void> result = MarsRoverUtils.sendMarsRoverImagesForSpecifiedDate(chatId, message, bot);
+        bot.getSession(chatId).reset();
+        return result;
     }
 
     /**
@@ -76,13 +85,18 @@ public class DefaultFallbackHandler implements FallbackHandlerInterface {
      * @param message the received message.
      * @param chatId  the ID of the chat where the fallback occurs.
      * @param bot     the instance of the {@link AstroBot}.
+     * @return the future completed once the image is sent.
      */
-    private void handleImageFallback(String message, Long chatId, AstroBot bot) {
+    private CompletableFuture<Void> handleImageFallback(String message, Long chatId, AstroBot bot) {
         String[] parts = message.split(" ");
-        if (parts[0].equals(Command.IMAGE) && parts.length > 1) {
-            bot.setMessageSent(false);
-            bot.sendImageRequest(chatId, bot.getNasaImage().getNasaImage(message));
-        } else
-            bot.sendMessage(chatId, UserInputError.UNRECOGNIZED_MESSAGE);
+        if (parts[0].equals(Command.IMAGE) && parts.length > 1)
+            return bot.sendImageRequest(chatId, () -> bot.getNasaImage().getNasaImage(message), item -> {
+                if (item == null)
+                    bot.sendMessage(chatId, UserInputError.INVALID_SEARCH_TERM);
+                else
+                    bot.sendPhoto(chatId, item.getLinks().getFirst().getHref(), NasaImage.createPost(item));
+            });
+        bot.sendMessage(chatId, UserInputError.UNRECOGNIZED_MESSAGE);
+        return CompletableFuture.completedFuture(null);
     }
 }
@@ -2,6 +2,8 @@ package commands.fallback_handlers;
 
 import app.AstroBot;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The {@code FallbackHandlerInterface} interface defines a contract for
  * handling fallback messages where the bot encounters unrecognized commands or messages.
@@ -13,6 +15,7 @@ public interface FallbackHandlerInterface {
      * @param message the received message.
      * @param chatId  the ID of the chat where the fallback occurs.
      * @param bot     the instance of the {@link AstroBot}.
+     * @return the future completed once the message is handled.
      */
-    void handleFallback(String message, Long chatId, AstroBot bot);
+    CompletableFuture<Void> handleFallback(String message, Long chatId, AstroBot bot);
 }
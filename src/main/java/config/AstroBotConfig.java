@@ -11,12 +11,47 @@ import java.util.Properties;
 
 /**
  * The {@code AstroBotConfig} class represents the configuration for the {@link AstroBot},
- * including its name and token.
+ * including its name, token and the way it receives updates.
  */
 @Data
 public class AstroBotConfig {
+    public static final String MODE_POLLING = "polling";
+    public static final String MODE_WEBHOOK = "webhook";
+
     private String botName;
     private String botToken;
+    /**
+     * The way updates are received: {@link AstroBotConfig#MODE_POLLING} (default) or {@link AstroBotConfig#MODE_WEBHOOK}.
+     */
+    private String mode;
+    /**
+     * The public HTTPS address Telegram sends the updates to in webhook mode, without the path.
+     */
+    private String webhookUrl;
+    private String webhookPath;
+    private int webhookPort;
+    /**
+     * The token Telegram sends with every update in webhook mode, so that foreign requests can be rejected.
+     * Required in webhook mode.
+     */
+    private String webhookSecret;
+    /**
+     * The local port the metrics are exposed on, or {@code 0} to disable them.
+     */
+    private int metricsPort;
+    /**
+     * The maximum number of requests per second sent to Telegram by all chats together.
+     */
+    private double telegramRateLimit = 30;
+    /**
+     * The number of connections the bot keeps to the Telegram Bot API, i.e. the maximum number of requests sent at once.
+     */
+    private int telegramMaxConnections = 20;
+    /**
+     * The directory the bot keeps its state in across restarts: subscribers, the broadcast checkpoint,
+     * the cached {@code file_id}s of the sent photos and the index of EPIC dates.
+     */
+    private String dataDirectory = "data";
 
     public AstroBotConfig() {
         Properties properties = new Properties();
@@ -27,8 +62,26 @@ public class AstroBotConfig {
 
             botName = properties.getProperty("bot.name");
             botToken = properties.getProperty("bot.token");
-        } catch (IOException e) {
+            mode = properties.getProperty("bot.mode", MODE_POLLING);
+            webhookUrl = properties.getProperty("webhook.url");
+            webhookPath = properties.getProperty("webhook.path", "/webhook");
+            webhookPort = Integer.parseInt(properties.getProperty("webhook.port", "8443"));
+            webhookSecret = properties.getProperty("webhook.secret");
+            metricsPort = Integer.parseInt(properties.getProperty("metrics.port", "9464"));
+            telegramRateLimit = Double.parseDouble(properties.getProperty("telegram.rate.limit", "30"));
+            telegramMaxConnections = Integer.parseInt(properties.getProperty("telegram.max.connections", "20"));
+            dataDirectory = properties.getProperty("bot.data.dir", dataDirectory);
+        } catch (IOException | NumberFormatException e) {
             TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
         }
     }
+
+    /**
+     * Checks if the bot receives updates through a webhook.
+     *
+     * @return {@code true} if the webhook mode is configured, {@code false} for long polling.
+     */
+    public boolean isWebhookMode() {
+        return MODE_WEBHOOK.equalsIgnoreCase(mode);
+    }
 }
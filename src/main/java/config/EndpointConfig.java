@@ -0,0 +1,52 @@
+package config;
+
+import logging.TelegramLog;
+import lombok.Data;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The {@code EndpointConfig} class represents the base URLs of the external APIs used by the bot,
+ * so that they can be pointed at a local stand-in, e.g. for load testing.
+ * <p>A system property of the same name as a key in the properties file takes precedence over the file.
+ * Values missing from both fall back to the public APIs.
+ */
+@Data
+public class EndpointConfig {
+    private static final String FILE = "src/main/resources/endpoints.properties";
+
+    private String nasaApiUrl = "https://api.nasa.gov";
+    private String nasaImagesUrl = "https://images-api.nasa.gov";
+    private String telegramApiUrl = "https://api.telegram.org";
+
+    public EndpointConfig() {
+        Properties properties = new Properties();
+        if (Files.exists(Path.of(FILE))) {
+            try (FileInputStream inputStream = new FileInputStream(FILE)) {
+                properties.load(inputStream);
+            } catch (IOException e) {
+                TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+            }
+        }
+        nasaApiUrl = getProperty(properties, "endpoint.nasa.api", nasaApiUrl);
+        nasaImagesUrl = getProperty(properties, "endpoint.nasa.images", nasaImagesUrl);
+        telegramApiUrl = getProperty(properties, "endpoint.telegram.api", telegramApiUrl);
+    }
+
+    /**
+     * Gets the value of the key from the system properties, then from the properties file.
+     *
+     * @param properties   the properties loaded from the file.
+     * @param key          the key of the property.
+     * @param defaultValue the value used if the key is set in neither.
+     * @return the value of the property.
+     */
+    private static String getProperty(Properties properties, String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+}
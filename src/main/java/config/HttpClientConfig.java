@@ -0,0 +1,80 @@
+package config;
+
+import logging.TelegramLog;
+import lombok.Data;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The {@code HttpClientConfig} class represents the configuration of the shared HTTP client
+ * used to access NASA's APIs, including its connection pool limits, timeouts, retries, circuit breakers
+ * and the on-disk response cache.
+ * <p>Values missing from the properties file fall back to the defaults.
+ */
+@Data
+public class HttpClientConfig {
+    private static final String FILE = "src/main/resources/httpclient.properties";
+
+    private int maxTotal = 50;
+    private int maxPerRoute = 20;
+    private long connectTimeout = 5_000;
+    private long socketTimeout = 15_000;
+    private long connectionRequestTimeout = 5_000;
+    private long idleEviction = 30_000;
+    private long connectionTtl = 300_000;
+    /**
+     * The maximum number of times a failed request is retried.
+     */
+    private int maxRetries = 2;
+    /**
+     * The base delay in milliseconds before a retry, doubled for every further retry.
+     */
+    private long retryBackoff = 200;
+    /**
+     * The number of consecutive failed requests opening the circuit of an endpoint,
+     * each counted once after its retries are used up.
+     */
+    private int circuitFailureThreshold = 5;
+    /**
+     * The time in milliseconds the circuit of an endpoint stays open before a probe request is let through.
+     */
+    private long circuitOpenTime = 30_000;
+    /**
+     * The file of the on-disk response cache, or an empty string to disable it.
+     */
+    private String diskCacheFile = "data/nasa-cache.bin";
+    /**
+     * The size of the on-disk response cache in megabytes, at most 2047 since the file is memory-mapped.
+     */
+    private int diskCacheCapacity = 64;
+
+    public HttpClientConfig() {
+        if (!Files.exists(Path.of(FILE)))
+            return;
+        Properties properties = new Properties();
+        try (FileInputStream inputStream = new FileInputStream(FILE)) {
+            properties.load(inputStream);
+
+            maxTotal = Integer.parseInt(properties.getProperty("http.pool.max.total", String.valueOf(maxTotal)));
+            maxPerRoute = Integer.parseInt(properties.getProperty("http.pool.max.per.route", String.valueOf(maxPerRoute)));
+            connectTimeout = Long.parseLong(properties.getProperty("http.connect.timeout", String.valueOf(connectTimeout)));
+            socketTimeout = Long.parseLong(properties.getProperty("http.socket.timeout", String.valueOf(socketTimeout)));
+            connectionRequestTimeout = Long.parseLong(properties.getProperty("http.connection.request.timeout", String.valueOf(connectionRequestTimeout)));
+            idleEviction = Long.parseLong(properties.getProperty("http.idle.eviction", String.valueOf(idleEviction)));
+            connectionTtl = Long.parseLong(properties.getProperty("http.connection.ttl", String.valueOf(connectionTtl)));
+            maxRetries = Integer.parseInt(properties.getProperty("http.retry.max", String.valueOf(maxRetries)));
+            retryBackoff = Long.parseLong(properties.getProperty("http.retry.backoff", String.valueOf(retryBackoff)));
+            circuitFailureThreshold = Integer.parseInt(properties.getProperty("http.circuit.failure.threshold", String.valueOf(circuitFailureThreshold)));
+            circuitOpenTime = Long.parseLong(properties.getProperty("http.circuit.open.time", String.valueOf(circuitOpenTime)));
+            diskCacheFile = properties.getProperty("http.disk.cache.file", diskCacheFile).trim();
+            diskCacheCapacity = Integer.parseInt(properties.getProperty("http.disk.cache.capacity.mb", String.valueOf(diskCacheCapacity)));
+        } catch (IOException | NumberFormatException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+}
@@ -28,7 +28,7 @@ public class LoggingBotConfig {
 
             chatId = properties.getProperty("chatId");
             botToken = properties.getProperty("bot.token");
-            sendMessageUrl = "https://api.telegram.org/bot" + botToken + "/sendMessage";
+            sendMessageUrl = new EndpointConfig().getTelegramApiUrl() + "/bot" + botToken + "/sendMessage";
         } catch (IOException e) {
             TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
         }
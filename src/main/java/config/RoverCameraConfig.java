@@ -0,0 +1,79 @@
+package config;
+
+import logging.TelegramLog;
+import lombok.Data;
+import nasa_services.mars_rover.MarsRover;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The {@code RoverCameraConfig} class represents the camera weights used to select Mars rover photos.
+ * <p>A camera is picked in proportion to its weight. Cameras without a weight are used only
+ * if none of the weighted cameras has photos. Rovers missing from the properties file fall back to the defaults.
+ */
+@Data
+public class RoverCameraConfig {
+    private static final String FILE = "src/main/resources/rover.properties";
+
+    private Map<String, Integer> curiosityCameraWeights = parseWeights("FHAZ:1,RHAZ:1,NAVCAM:1");
+    private Map<String, Integer> perseveranceCameraWeights = parseWeights("REAR_HAZCAM_RIGHT:1,REAR_HAZCAM_LEFT:1,FRONT_HAZCAM_RIGHT_A:1,FRONT_HAZCAM_LEFT_A:1,NAVCAM_RIGHT:1,NAVCAM_LEFT:1,SUPERCAM_RMI:1");
+
+    public RoverCameraConfig() {
+        if (!Files.exists(Path.of(FILE)))
+            return;
+        Properties properties = new Properties();
+        try (FileInputStream inputStream = new FileInputStream(FILE)) {
+            properties.load(inputStream);
+
+            if (properties.containsKey("rover.curiosity.camera.weights"))
+                curiosityCameraWeights = parseWeights(properties.getProperty("rover.curiosity.camera.weights"));
+            if (properties.containsKey("rover.perseverance.camera.weights"))
+                perseveranceCameraWeights = parseWeights(properties.getProperty("rover.perseverance.camera.weights"));
+        } catch (IOException | RuntimeException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Gets the camera weights of the specified rover.
+     *
+     * @param roverName the name of the rover ({@link MarsRover#MARS_CURIOSITY} or {@link MarsRover#MARS_PERSEVERANCE}).
+     * @return the map of camera names to their weights.
+     * @throws IllegalArgumentException if the rover is unknown.
+     */
+    public Map<String, Integer> getCameraWeights(String roverName) {
+        return switch (roverName) {
+            case MarsRover.MARS_CURIOSITY -> curiosityCameraWeights;
+            case MarsRover.MARS_PERSEVERANCE -> perseveranceCameraWeights;
+            default -> throw new IllegalArgumentException("Unknown rover: " + roverName);
+        };
+    }
+
+    /**
+     * Parses camera weights in the format "CAMERA:weight,CAMERA:weight".
+     *
+     * @param value the value to parse.
+     * @return the unmodifiable map of camera names to their weights.
+     * @throws IllegalArgumentException if the value is malformed or a weight is negative.
+     */
+    private static Map<String, Integer> parseWeights(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2)
+                throw new IllegalArgumentException("Malformed camera weight: " + entry);
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0)
+                throw new IllegalArgumentException("Negative camera weight: " + entry);
+            weights.put(parts[0].trim(), weight);
+        }
+        return Map.copyOf(weights);
+    }
+}
@@ -1,12 +1,7 @@
 package logging;
 
-import config.LoggingBotConfig;
-
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.util.Arrays;
+import java.util.logging.Filter;
+import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.StreamHandler;
 
@@ -14,6 +9,11 @@ import java.util.logging.StreamHandler;
  * The {@code LogHandler} class extends {@link java.util.logging.StreamHandler} to handle logging records.
  */
 public class LogHandler extends StreamHandler {
+    /**
+     * Shipper shared by all handlers, delivering the records to the logging chat in the background.
+     */
+    private static final LogShipper SHIPPER = new LogShipper();
+
     /**
      * Initializes the {@code LogHandler} with a {@link LogFilter} and a {@link LogFormatter}.
      * These components filter and format log records, respectively.
@@ -25,45 +25,45 @@ public class LogHandler extends StreamHandler {
 
     /**
      * Publishes the specified log record by formatting it using the
-     * configured formatter, then sends the formatted message to the specified
-     * chat via HTTP POST request.
+     * configured formatter, then queues the formatted message for delivery
+     * to the specified chat by {@link LogShipper}.
      *
-     * <p>If an error occurs during the process, it is logged using {@link TelegramLog}.
+     * <p>The record is never sent on the caller's thread, so logging does not slow the bot down.
+     * Records below the level of the handler or rejected by its filter are not shipped.
      *
      * @param record description of the log event. A null record is
      *               silently ignored and is not published.
      */
     @Override
     public void publish(LogRecord record) {
-        try (HttpClient httpClient = HttpClient.newHttpClient()) {
-            String formattedMessage = getFormatter().format(record);
-            String bodyMessage = """
-                    {
-                    "chat_id":"%s",
-                    "text":"%s" 
-                    }
-                    """.formatted(LoggingBotConfig.chatId, formattedMessage);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .POST(HttpRequest.BodyPublishers.ofString(bodyMessage))
-                    .uri(URI.create(LoggingBotConfig.sendMessageUrl))
-                    .header("Content-Type", "application/json")
-                    .build();
-
-            httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-        } catch (Exception e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-        }
+        if (!isLoggable(record))
+            return;
+        SHIPPER.offer(getFormatter().format(record));
     }
 
     /**
-     * Determines if a given log record should be logged or not.
+     * Determines if a given log record should be logged or not, by the level and the filter of the handler.
+     * <p>Unlike {@link StreamHandler#isLoggable(LogRecord)}, it does not require an output stream,
+     * since the records are shipped instead of written.
      *
      * @param record a {@code LogRecord} (may be null).
      * @return {@code true} if the log record should be logged, false otherwise.
      */
     @Override
     public boolean isLoggable(LogRecord record) {
-        return super.isLoggable(record);
+        int levelValue = getLevel().intValue();
+        if (record == null || levelValue == Level.OFF.intValue() || record.getLevel().intValue() < levelValue)
+            return false;
+        Filter filter = getFilter();
+        return filter == null || filter.isLoggable(record);
+    }
+
+    /**
+     * Gets the shipper delivering the records of all handlers.
+     *
+     * @return the shared {@link LogShipper}.
+     */
+    public static LogShipper getShipper() {
+        return SHIPPER;
     }
 }
@@ -0,0 +1,200 @@
+package logging;
+
+import config.LoggingBotConfig;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.ConsoleHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The {@code LogShipper} class delivers formatted log records to the logging chat in the background.
+ * <p>Records are put in a bounded queue and never block the caller; when the queue is full the record is dropped
+ * and counted. A background thread coalesces the records queued within {@link LogShipper#FLUSH_INTERVAL}
+ * into as few Telegram messages as possible, so an error storm costs one message per interval
+ * instead of one request per error.
+ */
+public class LogShipper {
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(5);
+    /**
+     * The maximum length of a Telegram message.
+     */
+    private static final int MAX_MESSAGE_LENGTH = 4096;
+    private static final String SEPARATOR = "\n\n";
+    /**
+     * The logger of delivery failures. It writes to the console only and never to its parents,
+     * so a failure is not queued for delivery again, even if a {@link LogHandler} is attached to the root logger.
+     */
+    private static final Logger LOGGER = createLogger();
+
+    private final BlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final Thread sender;
+
+    /**
+     * Constructs a new {@code LogShipper} and starts its background sender.
+     */
+    public LogShipper() {
+        sender = new Thread(this::run, "log-shipper");
+        sender.setDaemon(true);
+        sender.start();
+    }
+
+    /**
+     * Queues the formatted record for delivery without blocking.
+     *
+     * @param formattedRecord the formatted log record.
+     * @return {@code true} if the record was queued, {@code false} if it was dropped because the queue is full.
+     */
+    public boolean offer(String formattedRecord) {
+        if (queue.offer(formattedRecord))
+            return true;
+        droppedRecords.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Returns the number of records waiting to be sent.
+     *
+     * @return the number of queued records.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Returns the number of records dropped because the queue was full.
+     *
+     * @return the number of dropped records.
+     */
+    public long getDroppedRecords() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * Returns the number of messages delivered to the logging chat.
+     *
+     * @return the number of sent messages.
+     */
+    public long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    /**
+     * Returns the number of messages that could not be delivered.
+     *
+     * @return the number of failed messages.
+     */
+    public long getFailedMessages() {
+        return failedMessages.get();
+    }
+
+    /**
+     * Creates the logger of delivery failures, detached from the parent handlers.
+     *
+     * @return the logger writing to the console.
+     */
+    private static Logger createLogger() {
+        Logger logger = Logger.getLogger(LogShipper.class.getName());
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new ConsoleHandler());
+        return logger;
+    }
+
+    /**
+     * Waits for a record, collects everything queued during the flush interval and sends it.
+     */
+    private void run() {
+        long reportedDrops = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<String> batch = new ArrayList<>();
+                batch.add(queue.take());
+                Thread.sleep(FLUSH_INTERVAL.toMillis());
+                queue.drainTo(batch);
+                long drops = droppedRecords.get();
+                if (drops > reportedDrops) {
+                    batch.add((drops - reportedDrops) + " log records were dropped because the queue was full.");
+                    reportedDrops = drops;
+                }
+                for (String message : coalesce(batch))
+                    send(message);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Joins the records into messages no longer than {@link LogShipper#MAX_MESSAGE_LENGTH}.
+     * <p>A record that alone exceeds the limit is truncated.
+     *
+     * @param records the records to join.
+     * @return the messages to send.
+     */
+    private static List<String> coalesce(List<String> records) {
+        List<String> messages = new ArrayList<>();
+        StringBuilder message = new StringBuilder();
+        for (String record : records) {
+            if (record.length() > MAX_MESSAGE_LENGTH)
+                record = record.substring(0, MAX_MESSAGE_LENGTH);
+            if (!message.isEmpty() && message.length() + SEPARATOR.length() + record.length() > MAX_MESSAGE_LENGTH) {
+                messages.add(message.toString());
+                message.setLength(0);
+            }
+            if (!message.isEmpty())
+                message.append(SEPARATOR);
+            message.append(record);
+        }
+        if (!message.isEmpty())
+            messages.add(message.toString());
+        return messages;
+    }
+
+    /**
+     * Sends the message to the logging chat.
+     * <p>Failures are logged to the console only, since shipping them would feed the queue again.
+     *
+     * @param message the message to send.
+     */
+    private void send(String message) {
+        String body = new JSONObject()
+                .put("chat_id", LoggingBotConfig.chatId)
+                .put("text", message)
+                .toString();
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .uri(URI.create(LoggingBotConfig.sendMessageUrl))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                sentMessages.incrementAndGet();
+                return;
+            }
+            failedMessages.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Failed to ship log message: " + response.statusCode() + " " + response.body());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failedMessages.incrementAndGet();
+            LOGGER.log(Level.WARNING, "Failed to ship log message: " + e);
+        }
+    }
+}
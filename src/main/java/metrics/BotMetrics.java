@@ -0,0 +1,136 @@
+package metrics;
+
+import java.util.function.IntSupplier;
+
+/**
+ * The {@code BotMetrics} class names the metrics recorded by the bot, so that every series
+ * of a metric is registered with the same name, description and labels.
+ */
+public class BotMetrics {
+
+    private BotMetrics() {
+    }
+
+    /**
+     * Gets the histogram of the time taken to handle an update.
+     *
+     * @param command the command of the update (e.g. "apod", "image", "callback").
+     * @return the histogram.
+     */
+    public static Histogram commandDuration(String command) {
+        return Metrics.histogram("astrobot_command_duration_seconds", "Time taken to handle an update by command.",
+                "command", command);
+    }
+
+    /**
+     * Gets the histogram of the time taken by a request to NASA's API, up to the end of the response body.
+     *
+     * @param endpoint the NASA endpoint.
+     * @return the histogram.
+     */
+    public static Histogram nasaRequestDuration(String endpoint) {
+        return Metrics.histogram("astrobot_nasa_request_duration_seconds", "Time taken by requests to NASA's API.",
+                "endpoint", endpoint);
+    }
+
+    /**
+     * Gets the counter of requests to NASA's API.
+     *
+     * @param endpoint the NASA endpoint.
+     * @param status   the HTTP status of the response, "error" if there is no response,
+     *                 or "circuit_open" if the request was not sent.
+     * @return the counter.
+     */
+    public static Counter nasaRequests(String endpoint, String status) {
+        return Metrics.counter("astrobot_nasa_requests_total", "Requests to NASA's API by response status.",
+                "endpoint", endpoint, "status", status);
+    }
+
+    /**
+     * Gets the counter of bytes received from NASA's API.
+     *
+     * @param endpoint the NASA endpoint.
+     * @return the counter.
+     */
+    public static Counter nasaResponseBytes(String endpoint) {
+        return Metrics.counter("astrobot_nasa_response_bytes_total", "Bytes of response bodies received from NASA's API.",
+                "endpoint", endpoint);
+    }
+
+    /**
+     * Registers the gauge of the state of the circuit breaker of a NASA endpoint.
+     *
+     * @param endpoint the NASA endpoint.
+     * @param state    the supplier of the current state (0 closed, 1 half-open, 2 open).
+     */
+    public static void nasaCircuitState(String endpoint, IntSupplier state) {
+        Metrics.gauge("astrobot_nasa_circuit_state", "State of the circuit breaker of a NASA endpoint (0 closed, 1 half-open, 2 open).",
+                state::getAsInt, "endpoint", endpoint);
+    }
+
+    /**
+     * Gets the histogram of the time taken to parse a response of NASA's API.
+     *
+     * @param endpoint the NASA endpoint.
+     * @return the histogram.
+     */
+    public static Histogram nasaParseDuration(String endpoint) {
+        return Metrics.histogram("astrobot_nasa_parse_duration_seconds", "Time taken to parse responses of NASA's API.",
+                "endpoint", endpoint);
+    }
+
+    /**
+     * Gets the histogram of the time taken by a request to Telegram, excluding the time waiting for the rate limits.
+     *
+     * @param priority the priority of the request.
+     * @return the histogram.
+     */
+    public static Histogram telegramRequestDuration(String priority) {
+        return Metrics.histogram("astrobot_telegram_request_duration_seconds", "Time taken by requests to Telegram.",
+                "priority", priority);
+    }
+
+    /**
+     * Gets the counter of failed requests to Telegram.
+     *
+     * @param code the error code returned by Telegram, or "error" if there is none.
+     * @return the counter.
+     */
+    public static Counter telegramErrors(String code) {
+        return Metrics.counter("astrobot_telegram_errors_total", "Failed requests to Telegram by error code.",
+                "code", code);
+    }
+
+    /**
+     * Gets the counter of messages of the daily APOD broadcast.
+     *
+     * @param result the result of the delivery ("sent", "failed" or "blocked").
+     * @return the counter.
+     */
+    public static Counter broadcastMessages(String result) {
+        return Metrics.counter("astrobot_broadcast_messages_total", "Messages of the daily APOD broadcast by result.",
+                "result", result);
+    }
+
+    /**
+     * Gets the counter of cache lookups.
+     *
+     * @param cache  the name of the cache.
+     * @param result the result of the lookup ("hit", "stale" or "miss").
+     * @return the counter.
+     */
+    public static Counter cacheLookups(String cache, String result) {
+        return Metrics.counter("astrobot_cache_lookups_total", "Cache lookups by result.",
+                "cache", cache, "result", result);
+    }
+
+    /**
+     * Registers the gauge of the size of a queue.
+     *
+     * @param queue the name of the queue.
+     * @param size  the supplier of the current size.
+     */
+    public static void queueSize(String queue, IntSupplier size) {
+        Metrics.gauge("astrobot_queue_size", "Number of items waiting in a queue.", size::getAsInt, "queue", queue);
+    }
+}
@@ -0,0 +1,40 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code Counter} class represents a monotonically increasing count, e.g. of requests or errors.
+ */
+public class Counter implements Metric {
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Increments the counter by one.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * Increments the counter by the specified amount.
+     *
+     * @param amount the amount to add, not negative.
+     */
+    public void increment(long amount) {
+        count.add(amount);
+    }
+
+    /**
+     * Gets the current count.
+     *
+     * @return the current count.
+     */
+    public long get() {
+        return count.sum();
+    }
+
+    @Override
+    public void write(StringBuilder out, String name, String labels) {
+        out.append(name).append(Metrics.braces(labels)).append(' ').append(count.sum()).append('\n');
+    }
+}
@@ -0,0 +1,24 @@
+package metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * The {@code Gauge} class represents a value sampled when the metrics are scraped, e.g. the depth of a queue.
+ */
+public class Gauge implements Metric {
+    private final DoubleSupplier value;
+
+    /**
+     * Constructs a new {@code Gauge}.
+     *
+     * @param value the supplier of the current value.
+     */
+    public Gauge(DoubleSupplier value) {
+        this.value = value;
+    }
+
+    @Override
+    public void write(StringBuilder out, String name, String labels) {
+        out.append(name).append(Metrics.braces(labels)).append(' ').append(value.getAsDouble()).append('\n');
+    }
+}
@@ -0,0 +1,65 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@code Histogram} class counts observed durations in fixed buckets, so that latency percentiles
+ * can be estimated from the scraped series.
+ * <p>Durations are observed in nanoseconds and exposed in seconds.
+ */
+public class Histogram implements Metric {
+    /**
+     * Upper bounds of the buckets in seconds, covering the range from a cache hit to a slow NASA request.
+     */
+    private static final double[] BUCKETS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30};
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS.length + 1];
+    private final DoubleAdder sum = new DoubleAdder();
+
+    /**
+     * Constructs a new empty {@code Histogram}.
+     */
+    public Histogram() {
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = new LongAdder();
+    }
+
+    /**
+     * Observes the time elapsed since the specified start.
+     *
+     * @param startNanos the start, as returned by {@link System#nanoTime()}.
+     */
+    public void observeSince(long startNanos) {
+        observeNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Observes a duration.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    public void observeNanos(long nanos) {
+        double seconds = (double) nanos / TimeUnit.SECONDS.toNanos(1);
+        int bucket = 0;
+        while (bucket < BUCKETS.length && seconds > BUCKETS[bucket])
+            bucket++;
+        counts[bucket].increment();
+        sum.add(seconds);
+    }
+
+    @Override
+    public void write(StringBuilder out, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            cumulative += counts[i].sum();
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(BUCKETS[i]).append("\"} ").append(cumulative).append('\n');
+        }
+        cumulative += counts[BUCKETS.length].sum();
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        out.append(name).append("_sum").append(Metrics.braces(labels)).append(' ').append(sum.sum()).append('\n');
+        out.append(name).append("_count").append(Metrics.braces(labels)).append(' ').append(cumulative).append('\n');
+    }
+}
@@ -0,0 +1,16 @@
+package metrics;
+
+/**
+ * The {@code Metric} interface represents a single time series (or a group of series, like a histogram)
+ * that can be written in the Prometheus text exposition format.
+ */
+interface Metric {
+    /**
+     * Writes the samples of the metric.
+     *
+     * @param out    the output to write to.
+     * @param name   the name of the metric family.
+     * @param labels the formatted labels of the metric without braces, possibly empty.
+     */
+    void write(StringBuilder out, String name, String labels);
+}
@@ -0,0 +1,138 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * The {@code Metrics} class is the registry of all metrics of the bot.
+ * <p>Metrics are grouped into families by name, and the series of a family are told apart by their labels,
+ * given as name and value pairs. A series is created the first time it is requested and reused afterward.
+ * The registry is exposed in the Prometheus text format by {@link MetricsServer}.
+ */
+public class Metrics {
+    /**
+     * Map of metric names to their families, sorted so that the scrape output is stable.
+     */
+    private static final Map<String, Family> FAMILIES = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the counter of the specified series, creating it if necessary.
+     *
+     * @param name   the name of the metric.
+     * @param help   the description of the metric.
+     * @param labels the label names and values, alternating.
+     * @return the counter.
+     */
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) getFamily(name, help, "counter").metrics.computeIfAbsent(formatLabels(labels), key -> new Counter());
+    }
+
+    /**
+     * Gets the histogram of the specified series, creating it if necessary.
+     *
+     * @param name   the name of the metric.
+     * @param help   the description of the metric.
+     * @param labels the label names and values, alternating.
+     * @return the histogram.
+     */
+    public static Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) getFamily(name, help, "histogram").metrics.computeIfAbsent(formatLabels(labels), key -> new Histogram());
+    }
+
+    /**
+     * Registers a gauge for the specified series, replacing the previous one.
+     *
+     * @param name   the name of the metric.
+     * @param help   the description of the metric.
+     * @param value  the supplier of the current value.
+     * @param labels the label names and values, alternating.
+     */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        getFamily(name, help, "gauge").metrics.put(formatLabels(labels), new Gauge(value));
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format.
+     *
+     * @return the metrics in the text format.
+     */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder();
+        FAMILIES.forEach((name, family) -> {
+            out.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+            new ConcurrentSkipListMap<>(family.metrics).forEach((labels, metric) -> metric.write(out, name, labels));
+        });
+        return out.toString();
+    }
+
+    /**
+     * Wraps non-empty labels in braces.
+     *
+     * @param labels the formatted labels.
+     * @return the labels in braces, or an empty string if there are none.
+     */
+    static String braces(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    /**
+     * Gets the family of the metric, creating it if necessary.
+     *
+     * @param name the name of the metric.
+     * @param help the description of the metric.
+     * @param type the Prometheus type of the metric.
+     * @return the family.
+     * @throws IllegalArgumentException if the metric is already registered with another type.
+     */
+    private static Family getFamily(String name, String help, String type) {
+        Family family = FAMILIES.computeIfAbsent(name, key -> new Family(help, type));
+        if (!family.type.equals(type))
+            throw new IllegalArgumentException("Metric " + name + " is a " + family.type + ", not a " + type);
+        return family;
+    }
+
+    /**
+     * Formats the label pairs as {@code name="value",name="value"}, escaping the values.
+     *
+     * @param labels the label names and values, alternating.
+     * @return the formatted labels.
+     * @throws IllegalArgumentException if a label has no value.
+     */
+    private static String formatLabels(String... labels) {
+        if (labels.length % 2 != 0)
+            throw new IllegalArgumentException("Labels must be name and value pairs");
+        StringBuilder formatted = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0)
+                formatted.append(',');
+            formatted.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return formatted.toString();
+    }
+
+    /**
+     * The {@code Family} class holds the series of a metric.
+     */
+    private static class Family {
+        private final String help;
+        private final String type;
+        /**
+         * Map of formatted labels to their series.
+         */
+        private final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<>();
+
+        private Family(String help, String type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
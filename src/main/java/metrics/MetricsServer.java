@@ -0,0 +1,79 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import logging.TelegramLog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The {@code MetricsServer} class exposes {@link Metrics} in the Prometheus text format on {@code /metrics}.
+ * <p>The server listens on the loopback interface only, so the metrics are not reachable from outside the host.
+ */
+public class MetricsServer {
+    private static final String PATH = "/metrics";
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final int port;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer server;
+
+    /**
+     * Constructs a new {@code MetricsServer}.
+     *
+     * @param port the local port to listen on.
+     */
+    public MetricsServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Starts the HTTP server.
+     *
+     * @throws IOException if the server cannot be started.
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Stops the HTTP server.
+     */
+    public void stop() {
+        if (server != null)
+            server.stop(0);
+        executor.close();
+    }
+
+    /**
+     * Handles a scrape request.
+     *
+     * @param exchange the exchange containing the request.
+     */
+    private void handle(HttpExchange exchange) {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = Metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+}
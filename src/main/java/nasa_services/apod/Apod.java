@@ -1,65 +1,120 @@
 package nasa_services.apod;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import config.ApiKey;
-import errors.ServerConnectionError;
-import logging.TelegramLog;
+import config.EndpointConfig;
+import nasa_services.client.NasaEndpoint;
+import nasa_services.client.NasaHttpClient;
+import nasa_services.client.NasaJson;
 import nasa_services.apod.apod_utils.ApodImageCollection;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import utils.DateUtils;
 import utils.Emojis;
 
-import java.io.IOException;
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code Apod} class fetches Astronomy Picture of the Day (APOD) data from NASA's API.
- * <p>It provides methods to retrieve APOD URLs for both default and specific dates.
+ * <p>It provides methods to retrieve APOD posts for both default and specific dates asynchronously.
  */
 public class Apod {
+    /**
+     * The time the response for a past date is kept on disk, since the APOD of a past date never changes.
+     */
+    private static final Duration PAST_DATE_TTL = Duration.ofDays(365);
 
-    private static final String BASE_URL = "https://api.nasa.gov/planetary/apod" + ApiKey.API_KEY;
+    private final String baseUrl;
+    private final NasaHttpClient httpClient;
+    private final ApodCache cache = new ApodCache();
 
     /**
-     * Fetches the APOD URL for the given URL.
+     * Constructs a new {@code Apod} that fetches data through the shared HTTP client.
+     *
+     * @param httpClient     the shared {@link NasaHttpClient}.
+     * @param endpointConfig the base URLs of the APIs.
+     */
+    public Apod(NasaHttpClient httpClient, EndpointConfig endpointConfig) {
+        this.baseUrl = endpointConfig.getNasaApiUrl() + "/planetary/apod" + ApiKey.API_KEY;
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Fetches the APOD data from the given URL and caches the created post by its date in {@link ApodCache}.
+     * <p>The response is not kept on disk: just after the rollover, the latest APOD returned by NASA
+     * is often still the one of the previous day, which would then be served for the whole day.
      *
      * @param apodUrl the URL to fetch the APOD data from.
-     * @return a formatted by {@link Apod#createPost(ApodImageCollection apod)} string representing APOD data
-     * or {@link ServerConnectionError#FAILED_REQUEST} message if an error occurs.
+     * @return the future post formatted by {@link Apod#createPost(ApodImageCollection apod)} with its image,
+     * completed exceptionally if the request fails.
+     */
+    public CompletableFuture<ApodPost> getUrl(String apodUrl) {
+        return cachePost(httpClient.getAsync(NasaEndpoint.APOD, apodUrl, NasaJson.APOD::readValue));
+    }
+
+    /**
+     * Fetches the APOD data from the given URL, keeping the response on disk for the specified time,
+     * and caches the created post by its date in {@link ApodCache}.
+     *
+     * @param apodUrl  the URL of a specific date to fetch the APOD data from.
+     * @param cacheTtl the time the response is kept on disk.
+     * @return the future post formatted by {@link Apod#createPost(ApodImageCollection apod)} with its image,
+     * completed exceptionally if the request fails.
+     */
+    private CompletableFuture<ApodPost> getUrl(String apodUrl, Duration cacheTtl) {
+        return cachePost(httpClient.getAsync(NasaEndpoint.APOD, apodUrl, cacheTtl, NasaJson.APOD::readValue));
+    }
+
+    /**
+     * Creates the post of the future APOD data and caches it by its date in {@link ApodCache}.
+     *
+     * @param response the future APOD data.
+     * @return the future post with its image.
      */
-    public String getUrl(String apodUrl) {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            ObjectMapper mapper = new ObjectMapper();
-            CloseableHttpResponse response = httpClient.execute(new HttpGet(apodUrl));
-            ApodImageCollection apod = mapper.readValue(response.getEntity().getContent(), ApodImageCollection.class);
-            return createPost(apod);
-        } catch (IOException e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-            return ServerConnectionError.FAILED_REQUEST;
-        }
+    private CompletableFuture<ApodPost> cachePost(CompletableFuture<ApodImageCollection> response) {
+        return response.thenApply(apod -> {
+            ApodPost post = new ApodPost(createPost(apod), getImageUrl(apod));
+            cache.put(LocalDate.parse(apod.getDate()), post);
+            return post;
+        });
     }
 
     /**
-     * Fetches the APOD URL for the default date.
+     * Fetches the APOD post for the default date, unless it is already cached.
      *
-     * @return a string representing the APOD data for the default date.
+     * @return the future post of the APOD for the default date.
      */
-    public String getUrlForDefaultDate() {
-        return getUrl(BASE_URL);
+    public CompletableFuture<ApodPost> getUrlForDefaultDate() {
+        ApodPost post = cache.get(ApodCache.getCurrentApodDate());
+        return post != null ? CompletableFuture.completedFuture(post) : getUrl(baseUrl);
     }
 
     /**
-     * Fetches the APOD URL for the specified date.
+     * Fetches the APOD post for the specified date, unless it is already cached.
      *
      * @param inputDate the date for which the APOD data is requested.
-     * @return a string representing the APOD data for the specified date.
+     * @return the future post of the APOD for the specified date.
+     */
+    public CompletableFuture<ApodPost> getUrlForSpecifiedDate(LocalDate inputDate) {
+        ApodPost post = cache.get(inputDate);
+        if (post != null)
+            return CompletableFuture.completedFuture(post);
+        String apodUrl = baseUrl + "&date=" + inputDate;
+        return getUrl(apodUrl, inputDate.isBefore(ApodCache.getCurrentApodDate())
+                ? PAST_DATE_TTL
+                : Duration.between(ZonedDateTime.now(), ApodCache.getNextRolloverTime()));
+    }
+
+    /**
+     * Gets the URL of the image the APOD post is sent with.
+     * <p>The HD version is linked in the post but not sent, since it often exceeds the size Telegram accepts for photos sent by URL.
+     *
+     * @param apod the APOD data.
+     * @return the URL of the image, or {@code null} if the APOD is a video.
      */
-    public String getUrlForSpecifiedDate(String inputDate) {
-        return getUrl(BASE_URL + "&date=" + inputDate);
+    public static String getImageUrl(ApodImageCollection apod) {
+        return apod.getHdurl() == null ? null : apod.getUrl();
     }
 
     /**
@@ -68,7 +123,7 @@ public class Apod {
      * @param apod the APOD data to be formatted.
      * @return a formatted string representing the APOD data.
      */
-    private String createPost(ApodImageCollection apod) {
+    public static String createPost(ApodImageCollection apod) {
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append(Emojis.PAGE).append(apod.getTitle()).append("\n\n")
                 .append(Emojis.DATE).append(DateUtils.dateFormatter(apod.getDate(), "yyyy-MM-dd", "MMM d, yyyy", Locale.ENGLISH)).append("\n\n")
@@ -0,0 +1,104 @@
+package nasa_services.apod;
+
+import metrics.BotMetrics;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The {@code ApodCache} class keeps the rendered APOD posts keyed by their date.
+ * <p>The APOD of a past date never changes, so it is kept until it is evicted as the least recently used
+ * one once the cache is full. The APOD of the current date expires at the next APOD rollover,
+ * which happens at midnight in {@link ApodCache#APOD_ZONE}.
+ */
+public class ApodCache {
+    public static final ZoneId APOD_ZONE = ZoneId.of("America/New_York");
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<LocalDate, CachedPost> posts;
+
+    /**
+     * Constructs a new {@code ApodCache} with the {@link ApodCache#DEFAULT_MAX_SIZE}.
+     */
+    public ApodCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code ApodCache} holding at most the specified number of posts.
+     *
+     * @param maxSize the maximum number of cached posts.
+     */
+    public ApodCache(int maxSize) {
+        this.posts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<LocalDate, CachedPost> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached post for the specified date.
+     *
+     * @param date the date of the APOD.
+     * @return the cached post, or {@code null} if there is none or it has expired.
+     */
+    public synchronized ApodPost get(LocalDate date) {
+        CachedPost cachedPost = posts.get(date);
+        if (cachedPost == null) {
+            BotMetrics.cacheLookups("apod", "miss").increment();
+            return null;
+        }
+        if (cachedPost.expiresAt() <= System.currentTimeMillis()) {
+            posts.remove(date);
+            BotMetrics.cacheLookups("apod", "miss").increment();
+            return null;
+        }
+        BotMetrics.cacheLookups("apod", "hit").increment();
+        return cachedPost.post();
+    }
+
+    /**
+     * Caches the post for the specified date.
+     *
+     * @param date the date of the APOD.
+     * @param post the rendered APOD post.
+     */
+    public synchronized void put(LocalDate date, ApodPost post) {
+        long expiresAt = date.isBefore(getCurrentApodDate())
+                ? Long.MAX_VALUE
+                : getNextRolloverTime().toInstant().toEpochMilli();
+        posts.put(date, new CachedPost(post, expiresAt));
+    }
+
+    /**
+     * Gets the time of the next APOD rollover.
+     *
+     * @return the next midnight in {@link ApodCache#APOD_ZONE}.
+     */
+    public static ZonedDateTime getNextRolloverTime() {
+        return getCurrentApodDate().plusDays(1).atStartOfDay(APOD_ZONE);
+    }
+
+    /**
+     * Gets the date of the latest APOD.
+     *
+     * @return the current date in {@link ApodCache#APOD_ZONE}.
+     */
+    public static LocalDate getCurrentApodDate() {
+        return LocalDate.now(APOD_ZONE);
+    }
+
+    /**
+     * The {@code CachedPost} record represents a cached post and the time it expires at in milliseconds.
+     *
+     * @param post      the rendered post.
+     * @param expiresAt the expiry time in milliseconds.
+     */
+    private record CachedPost(ApodPost post, long expiresAt) {
+    }
+}
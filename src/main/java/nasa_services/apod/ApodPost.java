@@ -0,0 +1,10 @@
+package nasa_services.apod;
+
+/**
+ * The {@code ApodPost} record represents a rendered APOD post and the image it is sent with.
+ *
+ * @param text     the post formatted by {@link Apod#createPost(nasa_services.apod.apod_utils.ApodImageCollection)}.
+ * @param imageUrl the URL of the image, or {@code null} if the APOD is a video.
+ */
+public record ApodPost(String text, String imageUrl) {
+}
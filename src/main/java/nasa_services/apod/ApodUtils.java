@@ -4,36 +4,44 @@ import app.AstroBot;
 import errors.DateFormatError;
 import utils.DateUtils;
 
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The {@code ApodUtils} class provides utility methods for handling APOD requests.
  */
 public class ApodUtils {
     /**
-     * Sends the APOD image with data for the specified date to the given chat ID.
+     * Sends the APOD image with data for the specified date to the given chat ID as a photo.
      *
      * @param chatId    the ID of the chat to send the message to.
      * @param inputDate the date for which the APOD image is requested.
      * @param bot       the instance of the {@link AstroBot}.
+     * @return the future completed once the message is sent.
      */
-    public static void sendApodImageForSpecificDate(Long chatId, String inputDate, AstroBot bot) {
-        bot.setApodCalled(false);
-        if (!DateUtils.isValidDateFormat("yyyy-MM-dd", inputDate)) {
+    public static CompletableFuture<Void> sendApodImageForSpecificDate(Long chatId, String inputDate, AstroBot bot) {
+        bot.getSession(chatId).reset();
+        LocalDate date = DateUtils.parseDate(inputDate);
+        if (date == null) {
             bot.sendMessage(chatId, DateFormatError.UNRECOGNIZED_DATE);
-            return;
-        } else if (DateUtils.isFutureDate(inputDate)) {
+            return CompletableFuture.completedFuture(null);
+        } else if (DateUtils.isFutureDate(date)) {
             bot.sendMessage(chatId, DateFormatError.NO_IMAGES_AVAILABLE);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        bot.sendImageRequest(chatId, bot.getApod().getUrlForSpecifiedDate(inputDate));
+        return bot.sendImageRequest(chatId, () -> bot.getApod().getUrlForSpecifiedDate(date),
+                post -> bot.sendPhoto(chatId, post.imageUrl(), post.text()));
     }
 
     /**
-     * Sends the APOD image with data for the default date to the given chat ID.
+     * Sends the APOD image with data for the default date to the given chat ID as a photo.
      *
      * @param chatId the ID of the chat to send the message to.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the message is sent.
      */
-    public static void sendApodImageForDefaultDate(Long chatId, AstroBot bot) {
-        bot.sendImageRequest(chatId, bot.getApod().getUrlForDefaultDate());
+    public static CompletableFuture<Void> sendApodImageForDefaultDate(Long chatId, AstroBot bot) {
+        return bot.sendImageRequest(chatId, () -> bot.getApod().getUrlForDefaultDate(),
+                post -> bot.sendPhoto(chatId, post.imageUrl(), post.text()));
     }
 }
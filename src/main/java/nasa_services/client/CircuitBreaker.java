@@ -0,0 +1,156 @@
+package nasa_services.client;
+
+import logging.TelegramLog;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code CircuitBreaker} class stops the requests to a NASA endpoint while it is failing.
+ * <p>The circuit opens after a number of consecutive failed requests, each counted once after its retries.
+ * While it is open, requests fail at once instead of waiting for the timeouts of an unresponsive API.
+ * Once the open time has passed, the circuit is half-open: a single probe request is let through,
+ * closing the circuit if it succeeds or opening it again if it fails. Every request holds a {@link Permit},
+ * so a request granted before the circuit opened cannot be mistaken for the probe.
+ * <p>Only the changes of the state are logged, so an outage costs a couple of log records instead of one per request.
+ */
+public class CircuitBreaker {
+    /**
+     * The {@code State} enum represents the state of the circuit. Its ordinal is exposed as a metric.
+     */
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    /**
+     * The number of times the circuit has opened, so the permits granted before it opened are told apart.
+     */
+    private long generation;
+    private Permit probe;
+
+    /**
+     * Constructs a new closed {@code CircuitBreaker}.
+     *
+     * @param name             the name of the protected endpoint, used in the log.
+     * @param failureThreshold the number of consecutive failed requests opening the circuit.
+     * @param openMillis       the time in milliseconds the circuit stays open before a probe is let through.
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openMillis) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * Checks if a request may be sent. A half-open circuit lets through a single probe at a time.
+     *
+     * @return the permit whose outcome is reported to {@link CircuitBreaker#onSuccess(Permit)}
+     * or {@link CircuitBreaker#onFailure(Permit, Throwable)}, or {@code null} if the request should fail at once.
+     */
+    public Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis)
+                state = State.HALF_OPEN;
+            if (state == State.CLOSED)
+                return new Permit(generation);
+            if (state == State.HALF_OPEN && probe == null) {
+                probe = new Permit(generation);
+                return probe;
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a successful request. Only the probe closes a half-open circuit: the requests granted before
+     * the circuit opened do not change its state once they complete.
+     *
+     * @param permit the permit of the request.
+     */
+    public void onSuccess(Permit permit) {
+        lock.lock();
+        try {
+            if (permit == probe) {
+                probe = null;
+                consecutiveFailures = 0;
+                state = State.CLOSED;
+                TelegramLog.logging("The circuit of " + name + " is closed again.");
+            } else if (state == State.CLOSED && permit.generation == generation)
+                consecutiveFailures = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a failed request, opening the circuit once the threshold is reached or if the probe has failed.
+     * The requests granted before the circuit opened do not change its state once they complete.
+     *
+     * @param permit the permit of the request.
+     * @param cause  the failure of the request.
+     */
+    public void onFailure(Permit permit, Throwable cause) {
+        lock.lock();
+        try {
+            if (permit == probe) {
+                probe = null;
+                open();
+                return;
+            }
+            if (state != State.CLOSED || permit.generation != generation || ++consecutiveFailures < failureThreshold)
+                return;
+            TelegramLog.logging("The circuit of " + name + " is open for " + openMillis / 1000 + " s after "
+                    + consecutiveFailures + " consecutive failures: " + cause);
+            open();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens the circuit, invalidating the permits granted so far. Called with the lock held.
+     */
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        generation++;
+    }
+
+    /**
+     * Gets the current state of the circuit.
+     *
+     * @return the state, {@link State#HALF_OPEN} if the open time has passed but no probe has been sent yet.
+     */
+    public State getState() {
+        lock.lock();
+        try {
+            return state == State.OPEN && System.currentTimeMillis() - openedAt >= openMillis ? State.HALF_OPEN : state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The {@code Permit} class represents the permission to send a request, tied to the circuit it was granted by.
+     * Every permit is a distinct object, so the probe of a half-open circuit is recognized by its identity.
+     */
+    public static final class Permit {
+        /**
+         * The number of times the circuit had opened when the permit was granted.
+         */
+        private final long generation;
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+    }
+}
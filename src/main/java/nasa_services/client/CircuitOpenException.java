@@ -0,0 +1,18 @@
+package nasa_services.client;
+
+import java.io.IOException;
+
+/**
+ * The {@code CircuitOpenException} class signals a request that was not sent, since the {@link CircuitBreaker}
+ * of its endpoint is open.
+ */
+public class CircuitOpenException extends IOException {
+    /**
+     * Constructs a new {@code CircuitOpenException} for the endpoint.
+     *
+     * @param endpoint the endpoint whose circuit is open.
+     */
+    public CircuitOpenException(NasaEndpoint endpoint) {
+        super("The circuit of " + endpoint.getLabel() + " is open");
+    }
+}
@@ -0,0 +1,430 @@
+package nasa_services.client;
+
+import logging.TelegramLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code DiskCache} class keeps raw NASA responses on disk, so they survive restarts of the bot.
+ * <p>The entries are appended to a single memory-mapped segment file. Each entry is stored as
+ * {@code magic | crc32 | storedAt | expiresAt | keyLength | valueLength | key | value}, where the checksum covers
+ * everything after it. An in-memory index maps every key to its latest entry and is rebuilt by scanning the file
+ * at startup, stopping at the first incomplete or corrupted entry (e.g. one being written when the process died).
+ * <p>Overwritten and expired entries stay in the file until it runs low on space. Once they take an eighth of it,
+ * or an entry does not fit but would after dropping them, the file is compacted on a background thread:
+ * the live entries are copied to a new file that atomically replaces the old one. A file reopened with
+ * such entries is compacted at once.
+ * The entries below the write position are never modified, so they are copied without holding the lock,
+ * which is only taken to copy the entries appended meanwhile and to swap the files.
+ */
+public class DiskCache implements Closeable {
+    /**
+     * The magic number of an entry, changed with the layout of the entries so that an older file is read as empty.
+     */
+    private static final int MAGIC = 0x4E415332;
+    /**
+     * The size of the fixed part of an entry: magic, checksum, storage time, expiry time, key length and value length.
+     */
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4;
+    /**
+     * The largest part of the segment a single entry may take, so one huge response cannot evict everything else.
+     */
+    private static final int MAX_ENTRY_SHARE = 8;
+    /**
+     * The part of the segment left free below which a compaction is considered.
+     */
+    private static final int COMPACTION_FREE_SHARE = 4;
+    /**
+     * The part of the segment overwritten and expired entries must take to start a compaction,
+     * so a compaction freeing little space is not repeated at once.
+     */
+    private static final int COMPACTION_DEAD_SHARE = 8;
+
+    private final Path file;
+    private final int capacity;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "nasa-disk-cache-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Map of keys to the location of their latest entry.
+     */
+    private final Map<String, Entry> index = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int writePosition;
+    private long liveBytes;
+    private boolean compactionPending;
+
+    /**
+     * Opens the cache stored in the specified file, creating the file if it does not exist,
+     * and rebuilds the index from its entries. If the file holds overwritten or expired entries,
+     * it is compacted in the background.
+     *
+     * @param file     the segment file.
+     * @param capacity the size of the segment file in bytes, at most {@link Integer#MAX_VALUE}.
+     * @throws IOException              if the file cannot be opened or mapped.
+     * @throws IllegalArgumentException if the capacity is not positive or too large to be mapped.
+     */
+    public DiskCache(Path file, long capacity) throws IOException {
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("The capacity of the disk cache must be between 1 and " + Integer.MAX_VALUE + " bytes: " + capacity);
+        this.file = file;
+        this.capacity = (int) capacity;
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        writePosition = scan();
+        if (writePosition > liveBytes) {
+            compactionPending = true;
+            compactor.execute(this::compactInBackground);
+        }
+    }
+
+    /**
+     * Gets the cached value of the key.
+     *
+     * @param key the key of the value.
+     * @return a copy of the value with the time it was stored at, or {@code null} if the key is not cached
+     * or its entry has expired.
+     */
+    public CachedValue get(String key) {
+        lock.readLock().lock();
+        try {
+            Entry entry = index.get(key);
+            if (entry == null || entry.expiresAt() <= System.currentTimeMillis())
+                return null;
+            byte[] value = new byte[entry.valueLength()];
+            segment.get(entry.valueOffset(), value);
+            return new CachedValue(value, segment.getLong(entry.offset() + 8));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends the value of the key, replacing its previous value.
+     * <p>A compaction is started in the background once the segment runs low on space and enough of it can be freed,
+     * so the calling thread never waits for it. Values larger than an eighth of the segment, and values arriving
+     * while the segment is full, are not cached.
+     *
+     * @param key   the key of the value.
+     * @param value the value to cache.
+     * @param ttl   the time the value is kept for.
+     * @return {@code true} if the value was cached, {@code false} if it does not fit.
+     */
+    public boolean put(String key, byte[] value, Duration ttl) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int size = HEADER_SIZE + keyBytes.length + value.length;
+        if (size > capacity / MAX_ENTRY_SHARE)
+            return false;
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttl.toMillis();
+        lock.writeLock().lock();
+        try {
+            boolean fits = writePosition + size <= capacity;
+            if (fits) {
+                Entry entry = write(segment, writePosition, keyBytes, value, now, expiresAt);
+                Entry previous = index.put(key, entry);
+                if (previous != null)
+                    liveBytes -= previous.size();
+                liveBytes += size;
+                writePosition += size;
+            }
+            if (!compactionPending && !compactor.isShutdown() && capacity - writePosition < capacity / COMPACTION_FREE_SHARE) {
+                long reclaimable = reclaimableBytes(now);
+                if (reclaimable >= capacity / COMPACTION_DEAD_SHARE || !fits && reclaimable >= size) {
+                    compactionPending = true;
+                    compactor.execute(this::compactInBackground);
+                }
+            }
+            return fits;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of cached keys, including the expired ones not yet compacted away.
+     *
+     * @return the number of keys in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes taken by the latest entries of the keys.
+     *
+     * @return the number of live bytes.
+     */
+    public long getLiveBytes() {
+        lock.readLock().lock();
+        try {
+            return liveBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the segment to the disk and closes the file.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        compactor.close();
+        lock.writeLock().lock();
+        try {
+            segment.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes a compaction would free: those of the overwritten entries
+     * and of the latest entries that have expired. Called with the lock held.
+     *
+     * @param now the current time in milliseconds.
+     * @return the number of reclaimable bytes.
+     */
+    private long reclaimableBytes(long now) {
+        long expiredBytes = 0;
+        for (Entry entry : index.values())
+            if (entry.expiresAt() <= now)
+                expiredBytes += entry.size();
+        return writePosition - liveBytes + expiredBytes;
+    }
+
+    /**
+     * Compacts the segment, logging a failure instead of propagating it, since the cache keeps working without it.
+     */
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        } finally {
+            lock.writeLock().lock();
+            try {
+                compactionPending = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Copies the live entries that have not expired to a new segment file, which then replaces the current one.
+     * <p>The entries indexed when the compaction starts are copied without the lock. The entries appended meanwhile
+     * are copied under the write lock right before the files are swapped.
+     *
+     * @throws IOException if the new file cannot be written.
+     */
+    private void compact() throws IOException {
+        Map<String, Entry> snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = new HashMap<>(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Path compactFile = file.resolveSibling(file.getFileName() + ".compact");
+        Files.deleteIfExists(compactFile);
+        long now = System.currentTimeMillis();
+        Map<String, Entry> compacted = new HashMap<>();
+        int position = 0;
+        FileChannel compactChannel = FileChannel.open(compactFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer compactSegment = compactChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            for (Map.Entry<String, Entry> entry : snapshot.entrySet()) {
+                Entry live = entry.getValue();
+                if (live.expiresAt() <= now)
+                    continue;
+                compactSegment.put(position, segment, live.offset(), live.size());
+                compacted.put(entry.getKey(), live.moveTo(position));
+                position += live.size();
+            }
+            lock.writeLock().lock();
+            try {
+                long compactedBytes = 0;
+                Map<String, Entry> moved = new HashMap<>();
+                for (Map.Entry<String, Entry> entry : index.entrySet()) {
+                    Entry current = entry.getValue();
+                    Entry copy = current.equals(snapshot.get(entry.getKey())) ? compacted.get(entry.getKey()) : null;
+                    if (copy == null && current.expiresAt() > now && position + current.size() <= capacity) {
+                        compactSegment.put(position, segment, current.offset(), current.size());
+                        copy = current.moveTo(position);
+                        position += current.size();
+                    }
+                    if (copy != null) {
+                        moved.put(entry.getKey(), copy);
+                        compactedBytes += copy.size();
+                    }
+                }
+                compactSegment.force();
+                Files.move(compactFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel.close();
+                channel = compactChannel;
+                segment = compactSegment;
+                index.clear();
+                index.putAll(moved);
+                writePosition = position;
+                liveBytes = compactedBytes;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException e) {
+            compactChannel.close();
+            Files.deleteIfExists(compactFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Rebuilds the index from the entries of the segment, dropping the keys whose latest entry has expired.
+     *
+     * @return the position after the last valid entry, where the next entry is appended.
+     */
+    private int scan() {
+        long now = System.currentTimeMillis();
+        int position = 0;
+        while (position + HEADER_SIZE <= capacity && segment.getInt(position) == MAGIC) {
+            int checksum = segment.getInt(position + 4);
+            long expiresAt = segment.getLong(position + 16);
+            int keyLength = segment.getInt(position + 24);
+            int valueLength = segment.getInt(position + 28);
+            if (keyLength < 0 || valueLength < 0 || (long) position + HEADER_SIZE + keyLength + valueLength > capacity)
+                break;
+            int size = HEADER_SIZE + keyLength + valueLength;
+            if (checksum != checksum(segment, position + 8, size - 8))
+                break;
+            byte[] keyBytes = new byte[keyLength];
+            segment.get(position + HEADER_SIZE, keyBytes);
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            // An expired entry still overwrites the older entries of its key
+            Entry previous = expiresAt > now
+                    ? index.put(key, new Entry(position, size, keyLength, expiresAt))
+                    : index.remove(key);
+            if (previous != null)
+                liveBytes -= previous.size();
+            if (expiresAt > now)
+                liveBytes += size;
+            position += size;
+        }
+        return position;
+    }
+
+    /**
+     * Writes an entry to the segment. The magic number is written last, so a partially written entry is never valid.
+     *
+     * @param segment   the segment to write to.
+     * @param position  the position of the entry.
+     * @param key       the encoded key.
+     * @param value     the value.
+     * @param storedAt  the storage time in milliseconds.
+     * @param expiresAt the expiry time in milliseconds.
+     * @return the location of the written entry.
+     */
+    private static Entry write(MappedByteBuffer segment, int position, byte[] key, byte[] value, long storedAt, long expiresAt) {
+        int size = HEADER_SIZE + key.length + value.length;
+        segment.putLong(position + 8, storedAt);
+        segment.putLong(position + 16, expiresAt);
+        segment.putInt(position + 24, key.length);
+        segment.putInt(position + 28, value.length);
+        segment.put(position + HEADER_SIZE, key);
+        segment.put(position + HEADER_SIZE + key.length, value);
+        segment.putInt(position + 4, checksum(segment, position + 8, size - 8));
+        segment.putInt(position, MAGIC);
+        return new Entry(position, size, key.length, expiresAt);
+    }
+
+    /**
+     * Computes the CRC32 checksum of a region of the segment.
+     *
+     * @param segment  the segment.
+     * @param position the start of the region.
+     * @param length   the length of the region.
+     * @return the checksum.
+     */
+    private static int checksum(ByteBuffer segment, int position, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(segment.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * The {@code CachedValue} record represents a value read from the cache.
+     *
+     * @param value    the copy of the value.
+     * @param storedAt the time the value was stored at in milliseconds.
+     */
+    public record CachedValue(byte[] value, long storedAt) {
+    }
+
+    /**
+     * The {@code Entry} record represents the location of an entry in the segment.
+     *
+     * @param offset    the position of the entry.
+     * @param size      the size of the entry in bytes.
+     * @param keyLength the length of the encoded key.
+     * @param expiresAt the expiry time in milliseconds.
+     */
+    private record Entry(int offset, int size, int keyLength, long expiresAt) {
+        /**
+         * Returns the position of the value.
+         *
+         * @return the position of the value.
+         */
+        int valueOffset() {
+            return offset + HEADER_SIZE + keyLength;
+        }
+
+        /**
+         * Returns the length of the value.
+         *
+         * @return the length of the value.
+         */
+        int valueLength() {
+            return size - HEADER_SIZE - keyLength;
+        }
+
+        /**
+         * Returns the same entry at another position.
+         *
+         * @param position the new position of the entry.
+         * @return the moved entry.
+         */
+        Entry moveTo(int position) {
+            return new Entry(position, size, keyLength, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package nasa_services.client;
+
+import lombok.Getter;
+
+/**
+ * The {@code NasaEndpoint} enum lists the NASA APIs used by the bot, so that their requests
+ * can be told apart, e.g. in metrics.
+ */
+@Getter
+public enum NasaEndpoint {
+    APOD("apod"),
+    EPIC("epic"),
+    MARS_ROVER("mars_rover"),
+    NASA_IMAGE("nasa_image");
+
+    /**
+     * The name of the endpoint used as a metric label.
+     */
+    private final String label;
+
+    NasaEndpoint(String label) {
+        this.label = label;
+    }
+}
@@ -0,0 +1,539 @@
+package nasa_services.client;
+
+import config.HttpClientConfig;
+import logging.TelegramLog;
+import metrics.BotMetrics;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The {@code NasaHttpClient} class is the asynchronous HTTP client shared by all NASA services.
+ * <p>It keeps connections to NASA's APIs alive in a pool, so the TCP and TLS handshakes
+ * are not repeated for every request. Requests are sent by the I/O reactor of the client, so no thread waits
+ * for a response or a free connection. Concurrent requests for the same URL are coalesced
+ * by {@link SingleFlight} into a single request.
+ * <p>Requests failing with a connection error or a {@code 5xx} response are retried a few times
+ * after a jittered exponential backoff. Every endpoint has its own {@link CircuitBreaker}, which records the outcome
+ * of every request once its retries are used up: while it is open, requests fail at once
+ * with a {@link CircuitOpenException} instead of piling up on an unresponsive API.
+ * <p>Responses requested with a time to live are also kept in a {@link DiskCache}, so they are served
+ * without a request, even after a restart, until they expire. Callers keeping the responses in memory
+ * get them with the time they were fetched at (see {@link Fetched}), so a response read from disk is not mistaken
+ * for a fresh one, and refresh them with {@link NasaHttpClient#refreshAsync(NasaEndpoint, String, Duration, BodyParser)},
+ * which always sends a request.
+ * <p>The returned futures complete on virtual threads, never on the I/O reactor, so the stages composed on them
+ * may parse responses or send Telegram messages.
+ * <p>The latency, status and size of every request sent, and the time taken to parse the responses,
+ * are recorded in {@link BotMetrics} by {@link NasaEndpoint}.
+ */
+public class NasaHttpClient implements Closeable {
+    private final CloseableHttpAsyncClient httpClient;
+    private final SingleFlight<String, byte[]> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    /**
+     * The on-disk response cache, or {@code null} if it is disabled or cannot be opened.
+     */
+    private final DiskCache diskCache;
+    private final Map<NasaEndpoint, CircuitBreaker> circuitBreakers = new EnumMap<>(NasaEndpoint.class);
+    private final int maxRetries;
+    private final long retryBackoff;
+
+    /**
+     * Constructs a new {@code NasaHttpClient} with the provided configuration and starts its I/O reactor.
+     *
+     * @param config the configuration of the connection pool and timeouts.
+     */
+    public NasaHttpClient(HttpClientConfig config) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(config.getMaxTotal())
+                .setMaxConnPerRoute(config.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(config.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(config.getSocketTimeout()))
+                        .setTimeToLive(TimeValue.ofMilliseconds(config.getConnectionTtl()))
+                        .build())
+                .build();
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setSoTimeout(Timeout.ofMilliseconds(config.getSocketTimeout()))
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(config.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(config.getSocketTimeout()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(config.getIdleEviction()))
+                .build();
+        this.httpClient.start();
+        this.diskCache = openDiskCache(config);
+        this.maxRetries = config.getMaxRetries();
+        this.retryBackoff = config.getRetryBackoff();
+        for (NasaEndpoint endpoint : NasaEndpoint.values()) {
+            CircuitBreaker circuitBreaker = new CircuitBreaker(endpoint.getLabel(), config.getCircuitFailureThreshold(), config.getCircuitOpenTime());
+            circuitBreakers.put(endpoint, circuitBreaker);
+            BotMetrics.nasaCircuitState(endpoint.getLabel(), () -> circuitBreaker.getState().ordinal());
+        }
+    }
+
+    /**
+     * Opens the on-disk response cache of the provided configuration.
+     *
+     * @param config the configuration of the cache file.
+     * @return the opened {@link DiskCache}, or {@code null} if it is disabled or cannot be opened.
+     */
+    private static DiskCache openDiskCache(HttpClientConfig config) {
+        if (config.getDiskCacheFile().isEmpty())
+            return null;
+        try {
+            return new DiskCache(Path.of(config.getDiskCacheFile()), config.getDiskCacheCapacity() * 1024L * 1024L);
+        } catch (IOException | IllegalArgumentException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+            return null;
+        }
+    }
+
+    /**
+     * Sends a GET request to the specified URL and parses the whole response body,
+     * unless a response cached on disk has not expired yet.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param cacheTtl the time a successful response is kept on disk.
+     * @param parser   the parser of the response body.
+     * @param <T>      the type of the parsed response.
+     * @return the future parsed response, completed exceptionally with an {@link IOException} if the request fails,
+     * the response status is not successful or the body cannot be parsed.
+     * @see NasaHttpClient#getAsync(NasaEndpoint, String, Duration)
+     */
+    public <T> CompletableFuture<T> getAsync(NasaEndpoint endpoint, String url, Duration cacheTtl, BodyParser<T> parser) {
+        return parse(endpoint, getAsync(endpoint, url, cacheTtl), parser);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and parses the whole response body.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param parser   the parser of the response body.
+     * @param <T>      the type of the parsed response.
+     * @return the future parsed response, completed exceptionally with an {@link IOException} if the request fails,
+     * the response status is not successful or the body cannot be parsed.
+     * @see NasaHttpClient#getAsync(NasaEndpoint, String)
+     */
+    public <T> CompletableFuture<T> getAsync(NasaEndpoint endpoint, String url, BodyParser<T> parser) {
+        return parse(endpoint, getAsync(endpoint, url), parser);
+    }
+
+    /**
+     * Parses the future response body and records the time taken.
+     *
+     * @param endpoint the NASA endpoint the body comes from.
+     * @param body     the future body of the response.
+     * @param parser   the parser of the response body.
+     * @param <T>      the type of the parsed response.
+     * @return the future parsed response.
+     */
+    private static <T> CompletableFuture<T> parse(NasaEndpoint endpoint, CompletableFuture<byte[]> body, BodyParser<T> parser) {
+        return body.thenApply(bytes -> parseBody(endpoint, bytes, parser));
+    }
+
+    /**
+     * Parses the future response and records the time taken, keeping the time the response was fetched at.
+     *
+     * @param endpoint the NASA endpoint the response comes from.
+     * @param response the future response.
+     * @param parser   the parser of the response body.
+     * @param <T>      the type of the parsed response.
+     * @return the future parsed response.
+     */
+    private static <T> CompletableFuture<Fetched<T>> parseFetched(NasaEndpoint endpoint, CompletableFuture<Fetched<byte[]>> response, BodyParser<T> parser) {
+        return response.thenApply(fetched -> new Fetched<>(parseBody(endpoint, fetched.value(), parser), fetched.fetchedAt()));
+    }
+
+    /**
+     * Parses a response body and records the time taken.
+     *
+     * @param endpoint the NASA endpoint the body comes from.
+     * @param body     the body of the response.
+     * @param parser   the parser of the response body.
+     * @param <T>      the type of the parsed response.
+     * @return the parsed response.
+     * @throws CompletionException wrapping the {@link IOException} if the body cannot be parsed.
+     */
+    private static <T> T parseBody(NasaEndpoint endpoint, byte[] body, BodyParser<T> parser) {
+        long start = System.nanoTime();
+        try {
+            return parser.parse(body);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            BotMetrics.nasaParseDuration(endpoint.getLabel()).observeSince(start);
+        }
+    }
+
+    /**
+     * Sends a GET request to the specified URL and reads the whole response body.
+     * <p>If a request for the same URL is already in flight, its response is shared instead of sending another request.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @return the future body of the response, completed exceptionally with an {@link IOException}
+     * if the request fails or the response status is not successful.
+     */
+    public CompletableFuture<byte[]> getAsync(NasaEndpoint endpoint, String url) {
+        return singleFlight.execute(url, () -> fetchThroughCircuit(endpoint, url));
+    }
+
+    /**
+     * Reads the response body of the specified URL from the {@link DiskCache}, or sends a GET request for it
+     * and caches a successful response for the specified time.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param cacheTtl the time a successful response is kept on disk.
+     * @return the future body of the response, completed exceptionally with an {@link IOException}
+     * if the request fails or the response status is not successful.
+     * @see NasaHttpClient#getAsync(NasaEndpoint, String)
+     */
+    public CompletableFuture<byte[]> getAsync(NasaEndpoint endpoint, String url, Duration cacheTtl) {
+        return getFetchedAsync(endpoint, url, cacheTtl).thenApply(Fetched::value);
+    }
+
+    /**
+     * Reads the response of the specified URL from the {@link DiskCache}, or sends a GET request for it
+     * and caches a successful response for the specified time, and parses the response body.
+     * <p>The response is returned with the time it was fetched at, which is earlier than now if it was read from disk.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param cacheTtl the time a successful response is kept on disk.
+     * @param parser   the parser of the response body.
+     * @param <T>      the type of the parsed response.
+     * @return the future parsed response, completed exceptionally with an {@link IOException} if the request fails,
+     * the response status is not successful or the body cannot be parsed.
+     */
+    public <T> CompletableFuture<Fetched<T>> getFetchedAsync(NasaEndpoint endpoint, String url, Duration cacheTtl, BodyParser<T> parser) {
+        return parseFetched(endpoint, getFetchedAsync(endpoint, url, cacheTtl), parser);
+    }
+
+    /**
+     * Sends a GET request to the specified URL even if its response is cached on disk, caches a successful response
+     * for the specified time, and parses the response body.
+     * <p>This is how a cache kept in memory refreshes its entries: reading the disk instead could return a response
+     * fetched by its previous refresh.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param cacheTtl the time a successful response is kept on disk.
+     * @param parser   the parser of the response body.
+     * @param <T>      the type of the parsed response.
+     * @return the future parsed response, completed exceptionally with an {@link IOException} if the request fails,
+     * the response status is not successful or the body cannot be parsed.
+     */
+    public <T> CompletableFuture<Fetched<T>> refreshAsync(NasaEndpoint endpoint, String url, Duration cacheTtl, BodyParser<T> parser) {
+        return parseFetched(endpoint, refreshAsync(endpoint, url, cacheTtl), parser);
+    }
+
+    /**
+     * Reads the response body of the specified URL from the {@link DiskCache} with the time it was fetched at,
+     * or sends a GET request for it.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param cacheTtl the time a successful response is kept on disk.
+     * @return the future response.
+     */
+    private CompletableFuture<Fetched<byte[]>> getFetchedAsync(NasaEndpoint endpoint, String url, Duration cacheTtl) {
+        if (diskCache == null)
+            return refreshAsync(endpoint, url, cacheTtl);
+        DiskCache.CachedValue cached = diskCache.get(cacheKey(endpoint, url));
+        if (cached != null) {
+            BotMetrics.cacheLookups("nasa_disk", "hit").increment();
+            return CompletableFuture.completedFuture(new Fetched<>(cached.value(), cached.storedAt()));
+        }
+        BotMetrics.cacheLookups("nasa_disk", "miss").increment();
+        return refreshAsync(endpoint, url, cacheTtl);
+    }
+
+    /**
+     * Sends a GET request to the specified URL and caches a successful response on disk for the specified time.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param cacheTtl the time a successful response is kept on disk.
+     * @return the future response.
+     */
+    private CompletableFuture<Fetched<byte[]>> refreshAsync(NasaEndpoint endpoint, String url, Duration cacheTtl) {
+        return singleFlight.execute(url, () -> fetchThroughCircuit(endpoint, url).thenApply(body -> {
+            if (diskCache != null)
+                diskCache.put(cacheKey(endpoint, url), body, cacheTtl);
+            return body;
+        })).thenApply(body -> new Fetched<>(body, System.currentTimeMillis()));
+    }
+
+    /**
+     * Creates the {@link DiskCache} key of the URL, leaving out the API key so that it is never written to disk
+     * and rotating it does not invalidate the cache.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @return the cache key.
+     */
+    private static String cacheKey(NasaEndpoint endpoint, String url) {
+        return endpoint.getLabel() + " " + withoutApiKey(url);
+    }
+
+    /**
+     * Removes the API key from the URL, e.g. to use the URL as a key of a persistent cache.
+     *
+     * @param url the URL of a NASA API.
+     * @return the URL without the {@code api_key} parameter.
+     */
+    public static String withoutApiKey(String url) {
+        return url.replaceAll("api_key=[^&]*&?", "");
+    }
+
+    /**
+     * Sends a GET request to the specified URL through the {@link CircuitBreaker} of the endpoint,
+     * recording a single outcome for the request and all its retries.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @return the future body of the response, completed exceptionally with a {@link CircuitOpenException}
+     * if the circuit of the endpoint is open.
+     */
+    private CompletableFuture<byte[]> fetchThroughCircuit(NasaEndpoint endpoint, String url) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            BotMetrics.nasaRequests(endpoint.getLabel(), "circuit_open").increment();
+            return CompletableFuture.failedFuture(new CircuitOpenException(endpoint));
+        }
+        return fetchWithRetry(endpoint, url, 0).whenComplete((body, throwable) -> {
+            Throwable cause = throwable == null ? null : unwrap(throwable);
+            if (cause == null || !isFailure(cause))
+                circuitBreaker.onSuccess(permit);
+            else
+                circuitBreaker.onFailure(permit, cause);
+        });
+    }
+
+    /**
+     * Sends a GET request to the specified URL, retrying it after a transient failure
+     * (see {@link NasaHttpClient#isTransient(Throwable)}).
+     * <p>The delay before a retry is doubled every time, and a random half of it is left out,
+     * so that the retries of concurrent requests do not hit the API at the same moment.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @param attempt  the number of the attempt, starting at 0.
+     * @return the future body of the response of the last attempt.
+     */
+    private CompletableFuture<byte[]> fetchWithRetry(NasaEndpoint endpoint, String url, int attempt) {
+        CompletableFuture<byte[]> result = fetch(endpoint, url);
+        return result.handle((body, throwable) -> {
+            if (throwable == null || attempt >= maxRetries || !isTransient(unwrap(throwable)))
+                return result;
+            long delay = (retryBackoff << attempt) / 2;
+            delay += ThreadLocalRandom.current().nextLong(delay + 1);
+            Executor delayedExecutor = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor);
+            return CompletableFuture.supplyAsync(() -> fetchWithRetry(endpoint, url, attempt + 1), delayedExecutor)
+                    .thenCompose(Function.identity());
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Checks if the failure of a request is transient, i.e. the request may succeed if it is retried at once.
+     * <p>A {@code 429 Too Many Requests} response is not retried: NASA returns it once the hourly quota of the API key
+     * is used up, so a retry cannot succeed and only takes more of the quota.
+     *
+     * @param cause the failure of the request.
+     * @return {@code true} if the request may be retried, {@code false} otherwise.
+     */
+    private static boolean isTransient(Throwable cause) {
+        return !(cause instanceof HttpResponseException e) || e.getStatusCode() >= 500;
+    }
+
+    /**
+     * Checks if the failure of a request counts against the {@link CircuitBreaker} of its endpoint.
+     * <p>Transient failures and {@code 429 Too Many Requests} responses do, so the circuit opens while the quota
+     * is used up. Other client errors count as responses of a healthy API.
+     *
+     * @param cause the failure of the request.
+     * @return {@code true} if the failure counts against the circuit, {@code false} otherwise.
+     */
+    private static boolean isFailure(Throwable cause) {
+        return isTransient(cause) || cause instanceof HttpResponseException e && e.getStatusCode() == 429;
+    }
+
+    /**
+     * Gets the state of the {@link CircuitBreaker} of the endpoint.
+     *
+     * @param endpoint the NASA endpoint.
+     * @return the state of its circuit.
+     */
+    public CircuitBreaker.State getCircuitState(NasaEndpoint endpoint) {
+        return circuitBreakers.get(endpoint).getState();
+    }
+
+    /**
+     * Sends a GET request to the specified URL and records its metrics.
+     *
+     * @param endpoint the NASA endpoint the URL belongs to.
+     * @param url      the URL to fetch.
+     * @return the future body of the response.
+     */
+    private CompletableFuture<byte[]> fetch(NasaEndpoint endpoint, String url) {
+        String label = endpoint.getLabel();
+        long start = System.nanoTime();
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        httpClient.execute(SimpleRequestBuilder.get(url).build(), new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                BotMetrics.nasaRequestDuration(label).observeSince(start);
+                BotMetrics.nasaRequests(label, String.valueOf(response.getCode())).increment();
+                if (response.getCode() >= 300) {
+                    complete(result, null, new HttpResponseException(response.getCode(), response.getReasonPhrase()));
+                    return;
+                }
+                byte[] body = response.getBodyBytes() == null ? new byte[0] : response.getBodyBytes();
+                BotMetrics.nasaResponseBytes(label).increment(body.length);
+                complete(result, body, null);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                BotMetrics.nasaRequestDuration(label).observeSince(start);
+                BotMetrics.nasaRequests(label, "error").increment();
+                complete(result, null, e instanceof IOException ? e : new IOException(e));
+            }
+
+            @Override
+            public void cancelled() {
+                BotMetrics.nasaRequestDuration(label).observeSince(start);
+                BotMetrics.nasaRequests(label, "error").increment();
+                complete(result, null, new CancellationException("The request to " + label + " was cancelled"));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Completes the future on a virtual thread, leaving the I/O reactor free for other responses.
+     *
+     * @param result    the future to complete.
+     * @param body      the body of the response.
+     * @param exception the failure of the request, or {@code null} if it succeeded.
+     */
+    private void complete(CompletableFuture<byte[]> result, byte[] body, Exception exception) {
+        executor.execute(() -> {
+            if (exception == null)
+                result.complete(body);
+            else
+                result.completeExceptionally(exception);
+        });
+    }
+
+    /**
+     * Closes the client, all pooled connections and the {@link DiskCache}.
+     *
+     * @throws IOException if an I/O error occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+        executor.close();
+        if (diskCache != null)
+            diskCache.close();
+    }
+
+    /**
+     * Unwraps the failure of a future returned by the client.
+     *
+     * @param throwable the failure passed to a completion stage.
+     * @return the underlying cause.
+     */
+    public static Throwable unwrap(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null)
+            throwable = throwable.getCause();
+        return throwable;
+    }
+
+    /**
+     * Logs the failure of a future returned by the client.
+     * <p>Requests rejected by an open {@link CircuitBreaker} are not logged, since the breaker logs the outage once.
+     *
+     * @param throwable the failure passed to a completion stage.
+     */
+    public static void logFailure(Throwable throwable) {
+        Throwable e = unwrap(throwable);
+        if (!(e instanceof CircuitOpenException))
+            TelegramLog.logging(e + "\n" + Arrays.toString(e.getStackTrace()));
+    }
+
+    /**
+     * The {@code Fetched} record represents a response with the time it was fetched from NASA at.
+     *
+     * @param value     the response.
+     * @param fetchedAt the time the response was fetched at in milliseconds.
+     * @param <T>       the type of the response.
+     */
+    public record Fetched<T>(T value, long fetchedAt) {
+        /**
+         * Converts the response, keeping the time it was fetched at.
+         *
+         * @param mapper the function converting the response.
+         * @param <R>    the type of the converted response.
+         * @return the converted response.
+         */
+        public <R> Fetched<R> map(Function<? super T, ? extends R> mapper) {
+            return new Fetched<>(mapper.apply(value), fetchedAt);
+        }
+    }
+
+    /**
+     * The {@code BodyParser} interface parses the body of a response.
+     *
+     * @param <T> the type of the parsed response.
+     */
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        /**
+         * Parses the body of a response.
+         *
+         * @param body the body of the response.
+         * @return the parsed response.
+         * @throws IOException if the body cannot be parsed.
+         */
+        T parse(byte[] body) throws IOException;
+    }
+}
@@ -0,0 +1,37 @@
+package nasa_services.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import nasa_services.apod.apod_utils.ApodImageCollection;
+import nasa_services.epic.epic_utils.EpicImageCollection;
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import nasa_services.nasa_image.image_utils.NasaImageCollection;
+
+import java.util.List;
+
+/**
+ * The {@code NasaJson} class holds the JSON readers shared by all NASA services.
+ * <p>The readers are immutable and thread-safe, so they are built once and reused,
+ * keeping Jackson's deserializer caches warm between requests.
+ * Unknown properties in NASA's responses are skipped.
+ * <p>The {@link NasaJson#MAPPER} is the only mapper of the bot: other JSON, such as the updates
+ * posted to the webhook, is read with readers built from it.
+ */
+public class NasaJson {
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public static final ObjectReader APOD = MAPPER.readerFor(ApodImageCollection.class);
+    public static final ObjectReader EPIC_IMAGES = MAPPER.readerFor(new TypeReference<List<EpicImageCollection>>() {
+    });
+    public static final ObjectReader NASA_IMAGE = MAPPER.readerFor(NasaImageCollection.class);
+    /**
+     * The reader of a single photo of a Mars rover feed, bound straight from the streaming parser.
+     */
+    public static final ObjectReader MARS_PHOTO = MAPPER.readerFor(MarsPhotos.class);
+
+    private NasaJson() {
+    }
+}
@@ -0,0 +1,73 @@
+package nasa_services.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code SingleFlight} class coalesces concurrent requests for the same key.
+ * <p>The first caller starts the request, while the callers asking for the same key in the meantime
+ * share its future result instead of repeating it. The key is cleared as soon as the request completes,
+ * so later callers fetch fresh data.
+ *
+ * @param <K> the type of the request key.
+ * @param <V> the type of the result.
+ */
+public class SingleFlight<K, V> {
+    /**
+     * Map of keys to the results of the requests in flight.
+     */
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the request for the key, or joins the request for the same key that is already in flight.
+     *
+     * @param key    the key identifying the request.
+     * @param loader the request to start.
+     * @return the future result of the request. Every caller gets its own copy, so cancelling it does not affect the others.
+     */
+    public CompletableFuture<V> execute(K key, Loader<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null)
+            return existing.copy();
+        CompletableFuture<V> loading;
+        try {
+            loading = loader.load();
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((value, throwable) -> {
+            inFlight.remove(key, created);
+            if (throwable != null)
+                created.completeExceptionally(throwable);
+            else
+                created.complete(value);
+        });
+        return created.copy();
+    }
+
+    /**
+     * Returns the number of requests in flight.
+     *
+     * @return the number of requests in flight.
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * The {@code Loader} interface represents a request whose result can be shared.
+     *
+     * @param <V> the type of the result.
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+        /**
+         * Starts the request.
+         *
+         * @return the future result of the request.
+         */
+        CompletableFuture<V> load();
+    }
+}
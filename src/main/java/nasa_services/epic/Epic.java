@@ -1,20 +1,23 @@
 package nasa_services.epic;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import config.ApiKey;
-import logging.TelegramLog;
+import config.EndpointConfig;
 import lombok.Data;
+import nasa_services.client.NasaEndpoint;
+import nasa_services.client.NasaHttpClient;
+import nasa_services.client.NasaJson;
 import nasa_services.epic.epic_utils.EpicImageCollection;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import utils.DateUtils;
 import utils.Emojis;
 
-import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The {@code Epic} class provides methods to interact with the NASA EPIC API
@@ -23,76 +26,102 @@ import java.util.*;
 @Data
 public class Epic {
 
-    private static final String BASE_URL = "https://api.nasa.gov/EPIC/";
+    private static final String DATE_INDEX_FILE = "epic-dates.bin";
+    private static final Duration DATE_INDEX_REFRESH_INTERVAL = Duration.ofHours(6);
     /**
-     * Set containing all available dates for EPIC images.
+     * The time the images of a specified date are kept on disk. The images of a past date are rarely reprocessed.
      */
-    private Set<String> listOfAllAvailableDates = new HashSet<>();
+    private static final Duration DATE_CACHE_TTL = Duration.ofDays(30);
+    /**
+     * The time the latest images are kept on disk, since new images are published several times a day.
+     */
+    private static final Duration LATEST_CACHE_TTL = Duration.ofHours(1);
+    private final String baseUrl;
+    private final NasaHttpClient httpClient;
+    /**
+     * Index of all available dates for EPIC images.
+     */
+    private final EpicDateIndex dateIndex;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "epic-date-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new {@code Epic} that fetches data through the shared HTTP client.
+     * <p>Loads the {@link EpicDateIndex} from its snapshot and schedules its refresh in the background.
+     *
+     * @param httpClient     the shared {@link NasaHttpClient}.
+     * @param endpointConfig the base URLs of the APIs.
+     * @param dataDirectory  the directory the snapshot of the {@link EpicDateIndex} is kept in.
+     */
+    public Epic(NasaHttpClient httpClient, EndpointConfig endpointConfig, Path dataDirectory) {
+        this.baseUrl = endpointConfig.getNasaApiUrl() + "/EPIC/";
+        this.httpClient = httpClient;
+        this.dateIndex = new EpicDateIndex(dataDirectory.resolve(DATE_INDEX_FILE));
+        dateIndex.load();
+        scheduler.scheduleWithFixedDelay(this::retrieveAllAvailableDates, 0, DATE_INDEX_REFRESH_INTERVAL.toMinutes(), TimeUnit.MINUTES);
+    }
 
     /**
      * Fetches a list of EPIC images for a specified date.
      *
-     * @param inputDate the specified date to fetch EPIC images (format: yyyy-MM-dd).
-     * @return a list of EPIC image collections.
+     * @param inputDate the specified date to fetch EPIC images.
+     * @return the future list of EPIC image collections.
      */
-    public List<EpicImageCollection> getEpicImagesForDate(String inputDate) {
-        return fetchEpicImages(BASE_URL + "api/natural/date/" + inputDate + ApiKey.API_KEY);
+    public CompletableFuture<List<EpicImageCollection>> getEpicImagesForDate(LocalDate inputDate) {
+        return fetchEpicImages(baseUrl + "api/natural/date/" + inputDate + ApiKey.API_KEY, DATE_CACHE_TTL);
     }
 
     /**
      * Fetches a list of EPIC images for the default date.
      *
-     * @return a list of EPIC image collections.
+     * @return the future list of EPIC image collections.
      */
-    public List<EpicImageCollection> getEpicImagesForDefaultDate() {
-        return fetchEpicImages(BASE_URL + "api/natural" + ApiKey.API_KEY);
+    public CompletableFuture<List<EpicImageCollection>> getEpicImagesForDefaultDate() {
+        return fetchEpicImages(baseUrl + "api/natural" + ApiKey.API_KEY, LATEST_CACHE_TTL);
     }
 
     /**
-     * Fetches EPIC images from the specified URL.
+     * Fetches EPIC images from the specified URL, unless the response is still cached on disk.
      *
-     * @param url the URL to fetch EPIC images from.
-     * @return a list of EPIC image collections.
+     * @param url      the URL to fetch EPIC images from.
+     * @param cacheTtl the time the response is kept on disk.
+     * @return the future list of EPIC image collections, completed exceptionally if the request fails.
      */
-    public List<EpicImageCollection> fetchEpicImages(String url) {
-        List<EpicImageCollection> list = new ArrayList<>();
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            ObjectMapper mapper = new ObjectMapper();
-            CloseableHttpResponse response = httpClient.execute(new HttpGet(url));
-            List<EpicImageCollection> imageDataList = mapper.readValue(response.getEntity().getContent(), new TypeReference<>() {
-            });
-            list.addAll(imageDataList);
-            return list;
-        } catch (IOException e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-            return null;
-        }
+    public CompletableFuture<List<EpicImageCollection>> fetchEpicImages(String url, Duration cacheTtl) {
+        return httpClient.getAsync(NasaEndpoint.EPIC, url, cacheTtl, NasaJson.EPIC_IMAGES::readValue);
     }
 
     /**
-     * Retrieves all available dates for EPIC images from NASA API.
+     * Retrieves all available dates for EPIC images from NASA API and merges the new ones into {@link Epic#dateIndex}.
+     *
+     * @return the future completed once the dates are merged. A failure is logged and never completes it exceptionally.
      */
-    public void retrieveAllAvailableDates() {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            ObjectMapper mapper = new ObjectMapper();
-            CloseableHttpResponse response = httpClient.execute(new HttpGet(BASE_URL + "api/natural/all" + ApiKey.API_KEY));
-            Set<EpicImageCollection> listOfDates = mapper.readValue(response.getEntity().getContent(), new TypeReference<>() {
-            });
-            for (EpicImageCollection listOfDate : listOfDates)
-                this.listOfAllAvailableDates.add(listOfDate.getDate());
-        } catch (IOException e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-        }
+    public CompletableFuture<Void> retrieveAllAvailableDates() {
+        return httpClient.<List<EpicImageCollection>>getAsync(NasaEndpoint.EPIC, baseUrl + "api/natural/all" + ApiKey.API_KEY, NasaJson.EPIC_IMAGES::readValue)
+                .thenAccept(listOfDates -> {
+                    List<String> dates = new ArrayList<>(listOfDates.size());
+                    for (EpicImageCollection listOfDate : listOfDates)
+                        dates.add(listOfDate.getDate());
+                    dateIndex.addAll(dates);
+                })
+                .exceptionally(throwable -> {
+                    NasaHttpClient.logFailure(throwable);
+                    return null;
+                });
     }
 
     /**
-     * Checks if the specified date exists in {@link Epic#listOfAllAvailableDates}.
+     * Checks if the specified date exists in {@link Epic#dateIndex}.
+     * <p>Until the index is loaded for the first time every date is accepted, leaving the check to NASA API.
      *
-     * @param inputDate the date to check (format: yyyy-MM-dd).
+     * @param inputDate the date to check.
      * @return {@code true} if the date exists, {@code false} otherwise
      */
-    public boolean checkForExistenceOfDate(String inputDate) {
-        return listOfAllAvailableDates.contains(inputDate);
+    public boolean checkForExistenceOfDate(LocalDate inputDate) {
+        return dateIndex.isEmpty() || dateIndex.contains(inputDate);
     }
 
     /**
@@ -103,7 +132,19 @@ public class Epic {
      * @return the URL for the specific EPIC image.
      */
     public String getUrl(String inputDate, String inputImage) {
-        return BASE_URL + "archive/natural/" + inputDate + "/png/" + inputImage + ".png" + ApiKey.API_KEY;
+        return baseUrl + "archive/natural/" + inputDate + "/png/" + inputImage + ".png" + ApiKey.API_KEY;
+    }
+
+    /**
+     * Constructs the URL of the JPG version of the image for a specified date.
+     * <p>The JPG version is several times smaller than the PNG one returned by {@link Epic#getUrl(String, String)}.
+     *
+     * @param inputDate  the date of the image (format: yyyy/MM/dd).
+     * @param inputImage the image name.
+     * @return the URL for the specific EPIC image in JPG format.
+     */
+    public String getJpgUrl(String inputDate, String inputImage) {
+        return baseUrl + "archive/natural/" + inputDate + "/jpg/" + inputImage + ".jpg" + ApiKey.API_KEY;
     }
 
     /**
@@ -112,7 +153,7 @@ public class Epic {
      * @param epic the EPIC image collection.
      * @return a formatted message with EPIC image information.
      */
-    public String createPost(EpicImageCollection epic) {
+    public static String createPost(EpicImageCollection epic) {
         return Emojis.EARTH + epic.getCaption() + Emojis.SATELLITE + "\n\n" +
                 Emojis.DATE + DateUtils.dateTimeFormatter(epic.getDate(), "yyyy-MM-dd HH:mm:ss", "MMM d, yyyy HH:mm:ss", Locale.ENGLISH) + "\n\n" +
                 Emojis.LINK + "HD Image Link\n";
@@ -129,13 +170,13 @@ public class Epic {
     }
 
     /**
-     * Checks if the specified date is after the EPIC launch date (2015-06-13).
+     * Checks if the specified date is not before the EPIC launch date ({@link EpicDateIndex#EPIC_LAUNCH_DATE}).
      *
-     * @param inputDate the date to compare (format: yyyy-MM-dd).
-     * @return {@code true} if the date is after the launch date, {@code false} otherwise.
+     * @param inputDate the date to compare.
+     * @return {@code true} if the date is on or after the launch date, {@code false} otherwise.
      */
-    public boolean isDateAfterEpicLaunchDate(String inputDate) {
-        return DateUtils.compareDates(inputDate, "2015-06-13");
+    public boolean isDateAfterEpicLaunchDate(LocalDate inputDate) {
+        return !inputDate.isBefore(EpicDateIndex.EPIC_LAUNCH_DATE);
     }
 }
 
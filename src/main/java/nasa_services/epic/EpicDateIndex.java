@@ -0,0 +1,126 @@
+package nasa_services.epic;
+
+import logging.TelegramLog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * The {@code EpicDateIndex} class keeps the dates for which EPIC images are available.
+ * <p>Each date is stored as a single bit at its offset in days from {@link EpicDateIndex#EPIC_LAUNCH_DATE},
+ * so a lookup takes constant time and ten years of dates take less than half a kilobyte.
+ * The index is saved to a snapshot file after every update and loaded from it at startup.
+ */
+public class EpicDateIndex {
+    public static final LocalDate EPIC_LAUNCH_DATE = LocalDate.of(2015, 6, 13);
+
+    private final Path snapshotFile;
+    /**
+     * The available dates. The set is replaced on update rather than modified, so readers need no locking.
+     */
+    private volatile BitSet dates = new BitSet();
+
+    /**
+     * Constructs a new {@code EpicDateIndex} backed by the specified snapshot file.
+     *
+     * @param snapshotFile the file the index is saved to and loaded from.
+     */
+    public EpicDateIndex(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Loads the index from the snapshot file if it exists.
+     */
+    public void load() {
+        if (!Files.exists(snapshotFile))
+            return;
+        try {
+            dates = BitSet.valueOf(Files.readAllBytes(snapshotFile));
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Adds the dates to the index and saves the snapshot if any of them is new.
+     *
+     * @param newDates the available dates (format: yyyy-MM-dd, optionally followed by the time).
+     */
+    public synchronized void addAll(Collection<String> newDates) {
+        BitSet updated = (BitSet) dates.clone();
+        for (String date : newDates) {
+            int offset = toOffset(LocalDate.parse(date.substring(0, 10)));
+            if (offset >= 0)
+                updated.set(offset);
+        }
+        if (updated.equals(dates))
+            return;
+        dates = updated;
+        save(updated);
+    }
+
+    /**
+     * Checks if EPIC images are available for the specified date.
+     *
+     * @param date the date to check.
+     * @return {@code true} if the date is in the index, {@code false} otherwise.
+     */
+    public boolean contains(LocalDate date) {
+        int offset = toOffset(date);
+        return offset >= 0 && dates.get(offset);
+    }
+
+    /**
+     * Checks if the index has no dates yet.
+     *
+     * @return {@code true} if no date has been loaded or retrieved yet, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return dates.isEmpty();
+    }
+
+    /**
+     * Returns the number of available dates.
+     *
+     * @return the number of dates in the index.
+     */
+    public int size() {
+        return dates.cardinality();
+    }
+
+    /**
+     * Saves the index to the snapshot file, replacing the previous snapshot atomically.
+     *
+     * @param snapshot the index to save.
+     */
+    private void save(BitSet snapshot) {
+        try {
+            if (snapshotFile.getParent() != null)
+                Files.createDirectories(snapshotFile.getParent());
+            Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            Files.write(tempFile, snapshot.toByteArray());
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Converts the date to its offset in days from {@link EpicDateIndex#EPIC_LAUNCH_DATE}.
+     *
+     * @param date the date to convert.
+     * @return the offset, or {@code -1} if the date is before the launch date.
+     */
+    private static int toOffset(LocalDate date) {
+        long offset = ChronoUnit.DAYS.between(EPIC_LAUNCH_DATE, date);
+        return offset < 0 || offset > Integer.MAX_VALUE ? -1 : (int) offset;
+    }
+}
@@ -3,14 +3,24 @@ package nasa_services.epic;
 import app.AstroBot;
 import errors.DateFormatError;
 import nasa_services.epic.epic_utils.EpicImageCollection;
+import org.telegram.telegrambots.meta.api.objects.media.InputMedia;
+import org.telegram.telegrambots.meta.api.objects.media.InputMediaPhoto;
 import utils.DateUtils;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code EpicUtils} class provides utility methods for handling EPIC-related tasks.
  */
 public class EpicUtils {
+    /**
+     * The maximum number of photos Telegram accepts in one media group.
+     */
+    public static final int MEDIA_GROUP_SIZE = 10;
+
     /**
      * Generates a formatted message with the specified EPIC image and date information for posting.
      *
@@ -23,9 +33,7 @@ public class EpicUtils {
      */
     public static String generateFormattedMessageForPosting(String inputDate, String inputDateFormat, String imageName, String messageToPost, AstroBot bot) {
         String formattedDate = DateUtils.dateFormatter(inputDate, inputDateFormat, "yyyy/MM/dd", null);
-        String response = messageToPost + bot.getEpic().getUrl(formattedDate, imageName);
-        bot.setEpicCalled(false);
-        return response;
+        return messageToPost + bot.getEpic().getUrl(formattedDate, imageName);
     }
 
     /**
@@ -34,21 +42,20 @@ public class EpicUtils {
      * @param chatId    the ID of the chat to send the images to.
      * @param inputDate the specified date (format: yyyy-MM-dd).
      * @param bot       the instance of the {@link AstroBot}.
+     * @return the future completed once the images are sent.
      */
-    public static void sendAllEpicImagesForSpecifiedDate(Long chatId, String inputDate, AstroBot bot) {
-        if (!DateUtils.isValidDateFormat("yyyy-MM-dd", inputDate)) {
+    public static CompletableFuture<Void> sendAllEpicImagesForSpecifiedDate(Long chatId, String inputDate, AstroBot bot) {
+        LocalDate date = DateUtils.parseDate(inputDate);
+        if (date == null) {
             bot.sendMessage(chatId, DateFormatError.UNRECOGNIZED_DATE);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        if (!bot.getEpic().isDateAfterEpicLaunchDate(inputDate) || DateUtils.isFutureDate(inputDate) || !bot.getEpic().checkForExistenceOfDate(inputDate)) {
+        if (!bot.getEpic().isDateAfterEpicLaunchDate(date) || DateUtils.isFutureDate(date) || !bot.getEpic().checkForExistenceOfDate(date)) {
             bot.sendMessage(chatId, DateFormatError.NO_IMAGES_AVAILABLE);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        List<EpicImageCollection> listOfEpicImages = bot.getEpic().getEpicImagesForDate(inputDate);
-        for (EpicImageCollection listOfEpicImage : listOfEpicImages)
-            bot.sendImageRequest(chatId, generateFormattedMessageForPosting(inputDate, "yyyy-MM-dd",
-                    listOfEpicImage.getImage(), bot.getEpic().createPost(listOfEpicImage), bot));
-        bot.setMessageSent(false);
+        return bot.sendImageRequest(chatId, () -> bot.getEpic().getEpicImagesForDate(date),
+                listOfEpicImages -> sendEpicImages(chatId, listOfEpicImages, bot));
     }
 
     /**
@@ -56,13 +63,52 @@ public class EpicUtils {
      *
      * @param chatId the ID of the chat to send the images to.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the images are sent.
+     */
+    public static CompletableFuture<Void> sendAllEpicImagesFordDefaultDate(Long chatId, AstroBot bot) {
+        return bot.sendImageRequest(chatId, () -> bot.getEpic().getEpicImagesForDefaultDate(),
+                listOfEpicImages -> sendEpicImages(chatId, listOfEpicImages, bot));
+    }
+
+    /**
+     * Sends the EPIC images to a user as media groups of up to {@link EpicUtils#MEDIA_GROUP_SIZE} photos,
+     * each captioned with {@link Epic#createPost(EpicImageCollection)} and the HD image link.
+     * <p>All groups are prepared before the first one is sent, so the groups go out back to back.
+     *
+     * @param chatId           the ID of the chat to send the images to.
+     * @param listOfEpicImages the EPIC images to send.
+     * @param bot              the instance of the {@link AstroBot}.
+     */
+    private static void sendEpicImages(Long chatId, List<EpicImageCollection> listOfEpicImages, AstroBot bot) {
+        if (listOfEpicImages.isEmpty()) {
+            bot.sendMessage(chatId, DateFormatError.NO_IMAGES_AVAILABLE);
+            return;
+        }
+        List<List<InputMedia>> mediaGroups = new ArrayList<>();
+        for (int i = 0; i < listOfEpicImages.size(); i += MEDIA_GROUP_SIZE) {
+            List<InputMedia> mediaGroup = new ArrayList<>(MEDIA_GROUP_SIZE);
+            for (EpicImageCollection epicImage : listOfEpicImages.subList(i, Math.min(i + MEDIA_GROUP_SIZE, listOfEpicImages.size())))
+                mediaGroup.add(createMediaPhoto(epicImage, bot));
+            mediaGroups.add(mediaGroup);
+        }
+        for (List<InputMedia> mediaGroup : mediaGroups)
+            bot.sendMediaGroup(chatId, mediaGroup);
+    }
+
+    /**
+     * Creates a photo of a media group for the EPIC image.
+     * <p>The photo uses the lighter JPG version of the image, while the caption links the PNG one.
+     *
+     * @param epicImage the EPIC image.
+     * @param bot       the instance of the {@link AstroBot}.
+     * @return the photo of the media group.
      */
-    public static void sendAllEpicImagesFordDefaultDate(Long chatId, AstroBot bot) {
-        List<EpicImageCollection> listOfEpicImages = bot.getEpic().getEpicImagesForDefaultDate();
-        for (EpicImageCollection listOfEpicImage : listOfEpicImages)
-            bot.sendImageRequest(chatId, generateFormattedMessageForPosting(bot.getEpic().getTheMostRecentDate(listOfEpicImage),
-                    "yyyy-MM-dd HH:mm:ss", listOfEpicImage.getImage(), bot.getEpic().createPost(listOfEpicImage), bot));
-        bot.setMessageSent(false);
+    private static InputMediaPhoto createMediaPhoto(EpicImageCollection epicImage, AstroBot bot) {
+        String formattedDate = DateUtils.dateFormatter(epicImage.getDate(), "yyyy-MM-dd HH:mm:ss", "yyyy/MM/dd", null);
+        InputMediaPhoto photo = new InputMediaPhoto(bot.getEpic().getJpgUrl(formattedDate, epicImage.getImage()));
+        photo.setCaption(generateFormattedMessageForPosting(epicImage.getDate(), "yyyy-MM-dd HH:mm:ss",
+                epicImage.getImage(), Epic.createPost(epicImage), bot));
+        return photo;
     }
 
 
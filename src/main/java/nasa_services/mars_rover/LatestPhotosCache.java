@@ -0,0 +1,138 @@
+package nasa_services.mars_rover;
+
+import config.RoverCameraConfig;
+import metrics.BotMetrics;
+import nasa_services.client.NasaHttpClient;
+import nasa_services.client.SingleFlight;
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import nasa_services.mars_rover.rover_utils.Rover;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code LatestPhotosCache} class keeps the parsed latest photos and the manifest of each rover in memory,
+ * together with the {@link PhotoSelector} built for them.
+ * <p>The photos of every rover are refreshed in the background on a schedule. If an entry gets older than
+ * {@link LatestPhotosCache#MAX_AGE} anyway (e.g. NASA was unavailable), it is still served while a refresh
+ * is triggered, so users never wait for the feed unless the rover has not been loaded at all.
+ * A rover is never refreshed twice at the same time: concurrent refreshes share the request in flight.
+ * <p>Only the first load of a rover may be served from the disk cache of the {@link NasaHttpClient}, to warm up
+ * a restarted bot. Its entry keeps the time the photos were fetched at, so its age is not reset by the restart.
+ * The refreshes always fetch the feed from NASA.
+ */
+public class LatestPhotosCache {
+    public static final Duration REFRESH_INTERVAL = Duration.ofMinutes(15);
+    public static final Duration MAX_AGE = Duration.ofMinutes(30);
+
+    private final PhotosLoader loader;
+    private final RoverCameraConfig cameraConfig;
+    /**
+     * Map of rover names to their latest photos.
+     */
+    private final Map<String, LatestPhotos> entries = new ConcurrentHashMap<>();
+    private final SingleFlight<String, LatestPhotos> refreshes = new SingleFlight<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "rover-latest-photos");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new {@code LatestPhotosCache} and schedules the refresh of the specified rovers.
+     *
+     * @param loader       the loader fetching the latest photos of a rover.
+     * @param cameraConfig the camera weights of the {@link PhotoSelector}.
+     * @param roverNames   the names of the rovers to keep refreshed.
+     */
+    public LatestPhotosCache(PhotosLoader loader, RoverCameraConfig cameraConfig, List<String> roverNames) {
+        this.loader = loader;
+        this.cameraConfig = cameraConfig;
+        scheduler.scheduleWithFixedDelay(() -> roverNames.forEach(this::refreshInBackground),
+                0, REFRESH_INTERVAL.toMinutes(), TimeUnit.MINUTES);
+    }
+
+    /**
+     * Gets the latest photos of the rover.
+     * <p>The photos are waited for only if the rover has not been loaded yet. A caller arriving while the rover
+     * is being loaded, e.g. by the first scheduled refresh at startup, waits for that load instead of getting no photos.
+     *
+     * @param roverName the name of the rover.
+     * @return the future latest photos of the rover, completed with {@code null} if the rover has no photos
+     * or exceptionally if they cannot be fetched.
+     */
+    public CompletableFuture<LatestPhotos> get(String roverName) {
+        LatestPhotos latestPhotos = entries.get(roverName);
+        if (latestPhotos == null) {
+            BotMetrics.cacheLookups("rover_latest_photos", "miss").increment();
+            return refresh(roverName);
+        }
+        if (System.currentTimeMillis() - latestPhotos.fetchedAt() > MAX_AGE.toMillis()) {
+            BotMetrics.cacheLookups("rover_latest_photos", "stale").increment();
+            refreshInBackground(roverName);
+        } else
+            BotMetrics.cacheLookups("rover_latest_photos", "hit").increment();
+        return CompletableFuture.completedFuture(latestPhotos);
+    }
+
+    /**
+     * Refreshes the latest photos of the rover, logging a failure.
+     *
+     * @param roverName the name of the rover.
+     */
+    private void refreshInBackground(String roverName) {
+        refresh(roverName).exceptionally(throwable -> {
+            NasaHttpClient.logFailure(throwable);
+            return null;
+        });
+    }
+
+    /**
+     * Fetches the latest photos of the rover and replaces its entry.
+     * <p>The previous entry is kept if the fetch fails or returns no photos.
+     *
+     * @param roverName the name of the rover.
+     * @return the future entry of the rover.
+     */
+    private CompletableFuture<LatestPhotos> refresh(String roverName) {
+        return refreshes.execute(roverName, () -> loader.load(roverName, !entries.containsKey(roverName)).thenApply(fetched -> {
+            List<MarsPhotos> photos = fetched.value();
+            if (photos != null && !photos.isEmpty())
+                entries.put(roverName, new LatestPhotos(new PhotoSelector(photos, cameraConfig.getCameraWeights(roverName)),
+                        photos.getFirst().getRover(), fetched.fetchedAt()));
+            return entries.get(roverName);
+        }));
+    }
+
+    /**
+     * The {@code LatestPhotos} record represents the latest photos of a rover.
+     *
+     * @param selector  the selector of the latest photos.
+     * @param rover     the manifest of the rover.
+     * @param fetchedAt the time the photos were fetched at in milliseconds.
+     */
+    public record LatestPhotos(PhotoSelector selector, Rover rover, long fetchedAt) {
+    }
+
+    /**
+     * The {@code PhotosLoader} interface fetches the latest photos of a rover.
+     */
+    @FunctionalInterface
+    public interface PhotosLoader {
+        /**
+         * Fetches the latest photos of a rover.
+         *
+         * @param roverName the name of the rover.
+         * @param warmUp    {@code true} if the rover has not been loaded yet, so the photos may be read from disk.
+         * @return the future photos with the time they were fetched from NASA at, completed exceptionally
+         * if they cannot be fetched.
+         */
+        CompletableFuture<NasaHttpClient.Fetched<List<MarsPhotos>>> load(String roverName, boolean warmUp);
+    }
+}
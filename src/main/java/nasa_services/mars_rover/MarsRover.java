@@ -1,20 +1,21 @@
 package nasa_services.mars_rover;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import config.ApiKey;
-import errors.ServerConnectionError;
-import logging.TelegramLog;
+import config.EndpointConfig;
+import config.RoverCameraConfig;
 import lombok.Data;
+import nasa_services.client.NasaEndpoint;
+import nasa_services.client.NasaHttpClient;
 import nasa_services.mars_rover.rover_utils.*;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
+import sessions.RecentItems;
 import utils.DateUtils;
 import utils.Emojis;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The {@code MarsRover} class provides methods for retrieving Mars rover images
@@ -25,81 +26,85 @@ public class MarsRover {
 
     public static final String MARS_CURIOSITY = "curiosity";
     public static final String MARS_PERSEVERANCE = "perseverance";
-    private static final String BASE_URL = "https://api.nasa.gov/mars-photos/api/v1/rovers/";
-    private static final List<String> CURIOSITY_DEFAULT_CAMERAS = Arrays.asList("FHAZ", "RHAZ", "NAVCAM");
-    private static final List<String> PERSEVERANCE_DEFAULT_CAMERAS = Arrays.asList("REAR_HAZCAM_RIGHT", "REAR_HAZCAM_LEFT", "FRONT_HAZCAM_RIGHT_A", "FRONT_HAZCAM_LEFT_A", "NAVCAM_RIGHT", "NAVCAM_LEFT", "SUPERCAM_RMI");
+    /**
+     * The time the photo feed of a specified date is kept on disk.
+     */
+    private static final Duration DATE_CACHE_TTL = Duration.ofDays(30);
+    private final String baseUrl;
+    private final NasaHttpClient httpClient;
+    private final RoverCameraConfig cameraConfig;
+    private final LatestPhotosCache latestPhotosCache;
 
     /**
-     * Fetches Mars rover images for a specific date or the latest available date.
+     * Constructs a new {@code MarsRover} that fetches data through the shared HTTP client.
+     * <p>The latest photos of both rovers are kept in the {@link LatestPhotosCache}.
      *
-     * @param roverName the name of the Mars rover ({@link MarsRover#MARS_CURIOSITY} or {@link MarsRover#MARS_PERSEVERANCE}).
-     * @param inputDate the specified date in the format "yyyy-MM-dd" for fetching images.
-     *                  If null, fetches the latest images.
-     * @return the formatted message containing information about the rover image.
+     * @param httpClient     the shared {@link NasaHttpClient}.
+     * @param cameraConfig   the camera weights used to select the photos.
+     * @param endpointConfig the base URLs of the APIs.
      */
-    public String getMarsRoverImage(String roverName, String inputDate) {
-        boolean isDateNull = inputDate == null;
-        String roverUrl = BASE_URL + roverName;
-        if (!isDateNull && !inputDate.isEmpty())
-            roverUrl += "/photos" + "?earth_date=" + inputDate + ApiKey.API_KEY.replace('?', '&');
-        else
-            roverUrl += "/latest_photos" + ApiKey.API_KEY;
-        try {
-            List<MarsPhotos> photos = new ArrayList<>();
-            if ((roverName.equals(MARS_CURIOSITY) && !isDateNull) || (roverName.equals(MARS_PERSEVERANCE) && !isDateNull))
-                photos.addAll(getMarsPhotosList(roverUrl, MarsImageCollectionWithSpecifiedDate.class));
-            else if (roverName.equals(MARS_CURIOSITY) || roverName.equals(MARS_PERSEVERANCE))
-                photos.addAll(getMarsPhotosList(roverUrl, MarsImageCollectionWithDefaultDate.class));
-            return createPost(photos.get(findSuitableImageSelection(photos, roverName)));
-        } catch (Exception e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-            return ServerConnectionError.FAILED_REQUEST;
-        }
+    public MarsRover(NasaHttpClient httpClient, RoverCameraConfig cameraConfig, EndpointConfig endpointConfig) {
+        this.baseUrl = endpointConfig.getNasaApiUrl() + "/mars-photos/api/v1/rovers/";
+        this.httpClient = httpClient;
+        this.cameraConfig = cameraConfig;
+        this.latestPhotosCache = new LatestPhotosCache(this::fetchLatestPhotos, cameraConfig, List.of(MARS_CURIOSITY, MARS_PERSEVERANCE));
     }
 
     /**
-     * Fetches a list of Mars photos based on the provided URL and data class.
+     * Fetches a Mars rover image for a specific date or the latest available date.
+     * <p>The latest images are served from the {@link LatestPhotosCache} and selected by camera weight,
+     * while a single image is sampled by camera weight from the feed of a specified date by
+     * {@link RoverPhotoParser#sample(byte[], Map, RecentItems)}. Images recently sent to the chat are avoided.
      *
-     * @param url   the url to fetch the data from.
-     * @param clazz the class representing the data structure.
-     * @param <T>   any of the {@link MarsImageCollectionWithSpecifiedDate} and {@link MarsImageCollectionWithDefaultDate} classes
-     * @return a list of Mars photos.
-     * @throws IllegalArgumentException if different classes provided for {@code clazz}
-     *                                  rather than {@link MarsImageCollectionWithSpecifiedDate} and {@link MarsImageCollectionWithDefaultDate} classes.
+     * @param roverName    the name of the Mars rover ({@link MarsRover#MARS_CURIOSITY} or {@link MarsRover#MARS_PERSEVERANCE}).
+     * @param inputDate    the specified date in the format "yyyy-MM-dd" for fetching images.
+     *                     If null, fetches the latest images.
+     * @param recentPhotos the IDs of the photos recently sent to the chat.
+     * @return the future selected photo, completed with {@code null} if there are no images
+     * or exceptionally if the request fails.
+     */
+    public CompletableFuture<MarsPhotos> getMarsRoverImage(String roverName, String inputDate, RecentItems recentPhotos) {
+        if (inputDate == null || inputDate.isEmpty())
+            return latestPhotosCache.get(roverName).thenApply(latestPhotos -> latestPhotos == null ? null : latestPhotos.selector().select(recentPhotos));
+        String roverUrl = baseUrl + roverName + "/photos" + "?earth_date=" + inputDate + ApiKey.API_KEY.replace('?', '&');
+        return httpClient.getAsync(NasaEndpoint.MARS_ROVER, roverUrl, DATE_CACHE_TTL, body -> RoverPhotoParser.sample(body, cameraConfig.getCameraWeights(roverName), recentPhotos))
+                .thenApply(photo -> {
+                    if (photo != null)
+                        recentPhotos.add(photo.getId());
+                    return photo;
+                });
+    }
+
+    /**
+     * Fetches the latest photos of the rover, bypassing the {@link LatestPhotosCache}.
+     * <p>Only the photos of the suitable cameras are kept (see {@link RoverPhotoParser#filter(byte[], Set)}).
+     * The feed is kept on disk for {@link LatestPhotosCache#MAX_AGE}, but read from disk only to warm up the cache.
+     *
+     * @param roverName the name of the Mars rover ({@link MarsRover#MARS_CURIOSITY} or {@link MarsRover#MARS_PERSEVERANCE}).
+     * @param warmUp    {@code true} to read the feed from disk if it is cached there, {@code false} to fetch it from NASA.
+     * @return the future list of Mars photos with the time the feed was fetched at, completed exceptionally if the request fails.
      */
-    public <T> List<MarsPhotos> getMarsPhotosList(String url, Class<T> clazz) {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            ObjectMapper mapper = new ObjectMapper();
-            CloseableHttpResponse response = httpClient.execute(new HttpGet(url));
-            T imageCollection = mapper.readValue(response.getEntity().getContent(), clazz);
-            if (imageCollection instanceof MarsImageCollectionWithDefaultDate)
-                return ((MarsImageCollectionWithDefaultDate) imageCollection).getPhotos();
-            if (imageCollection instanceof MarsImageCollectionWithSpecifiedDate)
-                return ((MarsImageCollectionWithSpecifiedDate) imageCollection).getPhotos();
-            throw new IllegalArgumentException("Unexpected type: " + clazz.getName());
-        } catch (IllegalArgumentException | IOException e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-            return null;
-        }
+    public CompletableFuture<NasaHttpClient.Fetched<List<MarsPhotos>>> fetchLatestPhotos(String roverName, boolean warmUp) {
+        String url = baseUrl + roverName + "/latest_photos" + ApiKey.API_KEY;
+        NasaHttpClient.BodyParser<List<MarsPhotos>> parser = body -> RoverPhotoParser.filter(body, getSuitableCameras(roverName));
+        return warmUp
+                ? httpClient.getFetchedAsync(NasaEndpoint.MARS_ROVER, url, LatestPhotosCache.MAX_AGE, parser)
+                : httpClient.refreshAsync(NasaEndpoint.MARS_ROVER, url, LatestPhotosCache.MAX_AGE, parser);
     }
 
     /**
-     * Finds a suitable image based on the rover's cameras
-     * ({@link MarsRover#CURIOSITY_DEFAULT_CAMERAS} and {@link MarsRover#PERSEVERANCE_DEFAULT_CAMERAS}).
+     * Gets the cameras whose photos are preferred for the rover, i.e. the cameras with a positive weight.
      *
-     * @param photos    the list of Mars rover photos.
      * @param roverName the name of the Mars rover ({@link MarsRover#MARS_CURIOSITY} or {@link MarsRover#MARS_PERSEVERANCE}).
-     * @return the index of the selected image.
+     * @return the names of the suitable cameras.
      */
-    public int findSuitableImageSelection(List<MarsPhotos> photos, String roverName) {
-        List<String> suitableCameras = roverName.equals(MARS_CURIOSITY) ? CURIOSITY_DEFAULT_CAMERAS : PERSEVERANCE_DEFAULT_CAMERAS;
-        for (int i = 0; i < photos.size(); i++) {
-            int index = new Random().nextInt(photos.size());
-            String cameraName = photos.get(index).getCamera().getName();
-            if (suitableCameras.contains(cameraName))
-                return index;
-        }
-        return new Random().nextInt(photos.size());
+    private Set<String> getSuitableCameras(String roverName) {
+        Set<String> suitableCameras = new HashSet<>();
+        cameraConfig.getCameraWeights(roverName).forEach((camera, weight) -> {
+            if (weight > 0)
+                suitableCameras.add(camera);
+        });
+        return suitableCameras;
     }
 
     /**
@@ -108,7 +113,7 @@ public class MarsRover {
      * @param rover the Mars rover object containing information.
      * @return the formatted post.
      */
-    public String createRoverInfoPost(Rover rover) {
+    public static String createRoverInfoPost(Rover rover) {
         List<Cameras> cameras = rover.getCameras();
         StringBuilder stringBuilder = new StringBuilder();
         stringBuilder.append(Emojis.LABEL).append(" ").append(rover.getName()).append(" Rover\n")
@@ -125,21 +130,17 @@ public class MarsRover {
     }
 
     /**
-     * Retrieves rover information for the specified rover.
+     * Retrieves rover information for the specified rover from the manifest kept in the {@link LatestPhotosCache}.
      *
      * @param roverName the name of the Mars rover ({@link MarsRover#MARS_CURIOSITY} or {@link MarsRover#MARS_PERSEVERANCE}).
-     * @return the formatted rover information.
+     * @return the future manifest of the rover, completed exceptionally if it cannot be fetched.
      */
-    public String getRoverInfo(String roverName) {
-        String roverUrl = BASE_URL + roverName + "/latest_photos" + ApiKey.API_KEY;
-        try {
-            List<MarsPhotos> photos = getMarsPhotosList(roverUrl, MarsImageCollectionWithDefaultDate.class);
-            Rover rover = photos.getFirst().getRover();
-            return createRoverInfoPost(rover);
-        } catch (Exception e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-            return ServerConnectionError.FAILED_REQUEST;
-        }
+    public CompletableFuture<Rover> getRoverInfo(String roverName) {
+        return latestPhotosCache.get(roverName).thenApply(latestPhotos -> {
+            if (latestPhotos == null)
+                throw new CompletionException(new IOException("No latest photos of the rover " + roverName));
+            return latestPhotos.rover();
+        });
     }
 
     /**
@@ -148,7 +149,7 @@ public class MarsRover {
      * @param photos the Mars photo object containing information.
      * @return the formatted post.
      */
-    public String createPost(MarsPhotos photos) {
+    public static String createPost(MarsPhotos photos) {
         return Emojis.ROCKET + "Rover: " + photos.getRover().getName() + "\n\n" +
                 Emojis.CAMERA + "Camera: " + photos.getCamera().getFull_name() + "\n\n" +
                 Emojis.DATE + "Date: " + DateUtils.dateFormatter(photos.getEarth_date(), "yyyy-MM-dd", "MMM d, yyyy", Locale.ENGLISH) + "\n\n" +
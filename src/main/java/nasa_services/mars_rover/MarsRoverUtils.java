@@ -2,8 +2,13 @@ package nasa_services.mars_rover;
 
 import app.AstroBot;
 import errors.DateFormatError;
+import sessions.ChatSession;
+import sessions.ChatState;
 import utils.DateUtils;
 
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The {@code MarsRoverUtils} class provides utility methods for sending
  * Mars rover images via the {@link AstroBot}.
@@ -15,21 +20,18 @@ public class MarsRoverUtils {
      * @param chatId    the ID of the chat where the images will be sent.
      * @param inputDate the specific date in the format "yyyy-MM-dd" for fetching images.
      * @param bot       the instance of the {@link AstroBot}.
+     * @return the future completed once the image is sent.
      */
-    public static void sendMarsRoverImagesForSpecifiedDate(Long chatId, String inputDate, AstroBot bot) {
-        if (!DateUtils.isValidDateFormat("yyyy-MM-dd", inputDate)) {
+    public static CompletableFuture<Void> sendMarsRoverImagesForSpecifiedDate(Long chatId, String inputDate, AstroBot bot) {
+        LocalDate date = DateUtils.parseDate(inputDate);
+        if (date == null) {
             bot.sendMessage(chatId, DateFormatError.UNRECOGNIZED_DATE);
-            return;
-        } else if (DateUtils.isFutureDate(inputDate)) {
+            return CompletableFuture.completedFuture(null);
+        } else if (DateUtils.isFutureDate(date)) {
             bot.sendMessage(chatId, DateFormatError.NO_IMAGES_AVAILABLE);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
-        if (bot.isCuriosityCalled())
-            bot.sendImageRequest(chatId, bot.getMarsRover().getMarsRoverImage(MarsRover.MARS_CURIOSITY, inputDate));
-        else if (bot.isPerseveranceCalled())
-            bot.sendImageRequest(chatId, bot.getMarsRover().getMarsRoverImage(MarsRover.MARS_PERSEVERANCE, inputDate));
-        bot.setCuriosityCalled(false);
-        bot.setPerseveranceCalled(false);
+        return sendMarsRoverImage(chatId, inputDate, bot);
     }
 
     /**
@@ -37,14 +39,33 @@ public class MarsRoverUtils {
      *
      * @param chatId the ID of the chat where the images will be sent.
      * @param bot    the instance of the {@link AstroBot}.
+     * @return the future completed once the image is sent.
+     */
+    public static CompletableFuture<Void> sendMarsRoverImagesForDefaultDate(Long chatId, AstroBot bot) {
+        return sendMarsRoverImage(chatId, null, bot);
+    }
+
+    /**
+     * Sends an image of the rover chosen in the chat session as a photo, then resets the session.
+     *
+     * @param chatId    the ID of the chat where the image will be sent.
+     * @param inputDate the specific date in the format "yyyy-MM-dd", or {@code null} for the latest images.
+     * @param bot       the instance of the {@link AstroBot}.
+     * @return the future completed once the image is sent.
      */
-    public static void sendMarsRoverImagesForDefaultDate(Long chatId, AstroBot bot) {
-        if (bot.isCuriosityCalled())
-            bot.sendImageRequest(chatId, bot.getMarsRover().getMarsRoverImage(MarsRover.MARS_CURIOSITY, null));
-        else if (bot.isPerseveranceCalled())
-            bot.sendImageRequest(chatId, bot.getMarsRover().getMarsRoverImage(MarsRover.MARS_PERSEVERANCE, null));
-        bot.setCuriosityCalled(false);
-        bot.setPerseveranceCalled(false);
+    private static CompletableFuture<Void> sendMarsRoverImage(Long chatId, String inputDate, AstroBot bot) {
+        ChatSession session = bot.getSession(chatId);
+        String roverName = session.getState() == ChatState.CURIOSITY ? MarsRover.MARS_CURIOSITY
+                : session.getState() == ChatState.PERSEVERANCE ? MarsRover.MARS_PERSEVERANCE : null;
+        session.reset();
+        if (roverName == null)
+            return CompletableFuture.completedFuture(null);
+        return bot.sendImageRequest(chatId, () -> bot.getMarsRover().getMarsRoverImage(roverName, inputDate, session.getRecentPhotos()), photo -> {
+            if (photo == null)
+                bot.sendMessage(chatId, DateFormatError.NO_IMAGES_AVAILABLE);
+            else
+                bot.sendPhoto(chatId, photo.getImg_src(), MarsRover.createPost(photo));
+        });
     }
 
 }
@@ -0,0 +1,126 @@
+package nasa_services.mars_rover;
+
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import sessions.RecentItems;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code PhotoSelector} class picks Mars rover photos of a feed by camera weight.
+ * <p>The photos are grouped by camera once, when the selector is built for a feed. A selection first picks
+ * a camera in proportion to its weight and then a photo of that camera, skipping the photos recently sent to the chat.
+ * If no camera of the feed has a weight, all of them are weighted equally.
+ */
+public class PhotoSelector {
+    private final List<MarsPhotos> photos;
+    /**
+     * Indices of the photos of each weighted camera, in the order of {@link PhotoSelector#cumulativeWeights}.
+     */
+    private final int[][] cameraPhotos;
+    private final long[] cumulativeWeights;
+
+    /**
+     * Constructs a new {@code PhotoSelector} for the photos of a feed.
+     *
+     * @param photos        the photos of the feed.
+     * @param cameraWeights the map of camera names to their weights.
+     */
+    public PhotoSelector(List<MarsPhotos> photos, Map<String, Integer> cameraWeights) {
+        this.photos = List.copyOf(photos);
+        Map<String, List<Integer>> index = new LinkedHashMap<>();
+        for (int i = 0; i < this.photos.size(); i++)
+            index.computeIfAbsent(this.photos.get(i).getCamera().getName(), camera -> new ArrayList<>()).add(i);
+        boolean weighted = index.keySet().stream().anyMatch(camera -> cameraWeights.getOrDefault(camera, 0) > 0);
+        List<int[]> groups = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        long totalWeight = 0;
+        for (Map.Entry<String, List<Integer>> entry : index.entrySet()) {
+            int weight = weighted ? cameraWeights.getOrDefault(entry.getKey(), 0) : 1;
+            if (weight == 0)
+                continue;
+            groups.add(entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            totalWeight += weight;
+            weights.add(totalWeight);
+        }
+        this.cameraPhotos = groups.toArray(new int[0][]);
+        this.cumulativeWeights = weights.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Gets the photos of the feed.
+     *
+     * @return the unmodifiable list of photos.
+     */
+    public List<MarsPhotos> getPhotos() {
+        return photos;
+    }
+
+    /**
+     * Selects a photo not sent to the chat recently and remembers it as sent.
+     *
+     * @param recentPhotos the IDs of the photos recently sent to the chat.
+     * @return the selected photo, or {@code null} if the feed has no photos.
+     */
+    public MarsPhotos select(RecentItems recentPhotos) {
+        return select(recentPhotos, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Selects a photo not sent to the chat recently using the specified source of randomness,
+     * and remembers it as sent.
+     * <p>If every photo of the picked camera was sent recently, a fresh photo of any weighted camera is selected instead.
+     * Only if every photo was sent recently, a photo of the picked camera is repeated.
+     *
+     * @param recentPhotos the IDs of the photos recently sent to the chat.
+     * @param random       the source of randomness.
+     * @return the selected photo, or {@code null} if the feed has no photos.
+     */
+    public MarsPhotos select(RecentItems recentPhotos, RandomGenerator random) {
+        if (cameraPhotos.length == 0)
+            return null;
+        int[] candidates = cameraPhotos[pickCamera(random)];
+        int index = pickFresh(candidates, recentPhotos, random);
+        if (index < 0)
+            index = pickFresh(Arrays.stream(cameraPhotos).flatMapToInt(Arrays::stream).toArray(), recentPhotos, random);
+        if (index < 0)
+            index = candidates[random.nextInt(candidates.length)];
+        MarsPhotos photo = photos.get(index);
+        recentPhotos.add(photo.getId());
+        return photo;
+    }
+
+    /**
+     * Picks a camera in proportion to its weight.
+     *
+     * @param random the source of randomness.
+     * @return the position of the camera in {@link PhotoSelector#cameraPhotos}.
+     */
+    private int pickCamera(RandomGenerator random) {
+        long point = random.nextLong(cumulativeWeights[cumulativeWeights.length - 1]);
+        int position = Arrays.binarySearch(cumulativeWeights, point + 1);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    /**
+     * Picks a random photo among the candidates that was not sent recently, by reservoir sampling.
+     *
+     * @param candidates   the indices of the candidate photos.
+     * @param recentPhotos the IDs of the photos recently sent to the chat.
+     * @param random       the source of randomness.
+     * @return the index of the picked photo, or {@code -1} if every candidate was sent recently.
+     */
+    private int pickFresh(int[] candidates, RecentItems recentPhotos, RandomGenerator random) {
+        int picked = -1;
+        int count = 0;
+        for (int candidate : candidates)
+            if (!recentPhotos.contains(photos.get(candidate).getId()) && random.nextInt(++count) == 0)
+                picked = candidate;
+        return picked;
+    }
+}
@@ -0,0 +1,187 @@
+package nasa_services.mars_rover;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import nasa_services.client.NasaJson;
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import sessions.RecentItems;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code RoverPhotoParser} class reads Mars rover photo feeds as a stream instead of binding the whole response.
+ * <p>The photos are walked one by one and each is bound straight to {@link MarsPhotos} from the parser,
+ * without an intermediate tree. When the whole feed is kept, only the photos taken by one of the suitable cameras
+ * are kept; photos of other cameras are used only if the feed has no photo of a suitable camera.
+ * When a single photo is picked, it is picked by camera weight while the feed is read.
+ */
+public class RoverPhotoParser {
+
+    private RoverPhotoParser() {
+    }
+
+    /**
+     * Picks a random photo of the feed by camera weight, without keeping the list of photos.
+     *
+     * @param body          the body of the response ({@code photos} or {@code latest_photos} feed).
+     * @param cameraWeights the map of camera names to their weights.
+     * @param recentPhotos  the IDs of the photos recently sent to the chat.
+     * @return the picked photo, or {@code null} if the feed has no photos.
+     * @throws IOException if the body cannot be parsed.
+     * @see RoverPhotoParser#sample(byte[], Map, RecentItems, RandomGenerator)
+     */
+    public static MarsPhotos sample(byte[] body, Map<String, Integer> cameraWeights, RecentItems recentPhotos) throws IOException {
+        return sample(body, cameraWeights, recentPhotos, ThreadLocalRandom.current());
+    }
+
+    /**
+     * Picks a random photo of the feed by camera weight using the specified source of randomness,
+     * without keeping the list of photos.
+     * <p>The feed is read in a single pass, keeping for each camera one photo sampled by reservoir sampling among
+     * the photos not sent to the chat recently, another among the recently sent ones, and the counts of both.
+     * A camera is then picked in proportion to its weight among the cameras of the feed, like the {@link PhotoSelector}
+     * does for the latest photos: if every photo of the picked camera was sent recently, a fresh photo of any weighted
+     * camera is picked instead, and only if every photo was sent recently, a photo of the picked camera is repeated.
+     * If no camera of the feed has a weight, all of them are weighted equally.
+     *
+     * @param body          the body of the response ({@code photos} or {@code latest_photos} feed).
+     * @param cameraWeights the map of camera names to their weights.
+     * @param recentPhotos  the IDs of the photos recently sent to the chat.
+     * @param random        the source of randomness.
+     * @return the picked photo, or {@code null} if the feed has no photos.
+     * @throws IOException if the body cannot be parsed.
+     */
+    public static MarsPhotos sample(byte[] body, Map<String, Integer> cameraWeights, RecentItems recentPhotos, RandomGenerator random) throws IOException {
+        Map<String, CameraSample> samples = new LinkedHashMap<>();
+        try (JsonParser parser = openPhotos(body)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                MarsPhotos photo = NasaJson.MARS_PHOTO.readValue(parser);
+                samples.computeIfAbsent(getCameraName(photo), camera -> new CameraSample())
+                        .add(photo, recentPhotos.contains(photo.getId()), random);
+            }
+        }
+        boolean weighted = samples.keySet().stream().anyMatch(camera -> cameraWeights.getOrDefault(camera, 0) > 0);
+        long totalWeight = 0;
+        long freshCount = 0;
+        for (Map.Entry<String, CameraSample> entry : samples.entrySet()) {
+            CameraSample sample = entry.getValue();
+            sample.weight = weighted ? Math.max(cameraWeights.getOrDefault(entry.getKey(), 0), 0) : 1;
+            if (sample.weight > 0) {
+                totalWeight += sample.weight;
+                freshCount += sample.freshCount;
+            }
+        }
+        if (totalWeight == 0)
+            return null;
+        long point = random.nextLong(totalWeight);
+        CameraSample picked = null;
+        for (CameraSample sample : samples.values())
+            if ((point -= sample.weight) < 0) {
+                picked = sample;
+                break;
+            }
+        if (picked.fresh != null)
+            return picked.fresh;
+        if (freshCount == 0)
+            return picked.recent;
+        // Every camera's fresh photo is a uniform sample of its fresh photos, so weighting them by their counts
+        // picks a uniform fresh photo of all weighted cameras
+        long freshPoint = random.nextLong(freshCount);
+        for (CameraSample sample : samples.values())
+            if (sample.weight > 0 && (freshPoint -= sample.freshCount) < 0)
+                return sample.fresh;
+        return picked.recent;
+    }
+
+    /**
+     * Reads the photos of the feed taken by one of the suitable cameras.
+     * <p>If the feed has no photo of a suitable camera, all of its photos are returned instead.
+     *
+     * @param body            the body of the response ({@code photos} or {@code latest_photos} feed).
+     * @param suitableCameras the names of the cameras whose photos are kept.
+     * @return the list of photos, empty if the feed has no photos.
+     * @throws IOException if the body cannot be parsed.
+     */
+    public static List<MarsPhotos> filter(byte[] body, Set<String> suitableCameras) throws IOException {
+        List<MarsPhotos> suitable = new ArrayList<>();
+        List<MarsPhotos> fallback = new ArrayList<>();
+        try (JsonParser parser = openPhotos(body)) {
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                MarsPhotos photo = NasaJson.MARS_PHOTO.readValue(parser);
+                if (suitableCameras.contains(getCameraName(photo))) {
+                    suitable.add(photo);
+                    fallback.clear();
+                } else if (suitable.isEmpty())
+                    fallback.add(photo);
+            }
+        }
+        return suitable.isEmpty() ? fallback : suitable;
+    }
+
+    /**
+     * Opens a parser positioned at the start of the photos array of the feed.
+     * <p>The photos array is the first array of the root object, named {@code photos} or {@code latest_photos}.
+     *
+     * @param body the body of the response.
+     * @return the parser, positioned at the {@link JsonToken#START_ARRAY} token.
+     * @throws IOException if the body cannot be parsed or has no photos array.
+     */
+    private static JsonParser openPhotos(byte[] body) throws IOException {
+        JsonParser parser = NasaJson.MAPPER.createParser(body);
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            parser.close();
+            throw new IOException("Unexpected rover feed: the root is not an object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (parser.nextToken() == JsonToken.START_ARRAY)
+                return parser;
+            parser.skipChildren();
+        }
+        parser.close();
+        throw new IOException("Unexpected rover feed: no photos array");
+    }
+
+    /**
+     * Gets the name of the camera that took the photo.
+     *
+     * @param photo the photo.
+     * @return the name of the camera, or an empty string if it is missing.
+     */
+    private static String getCameraName(MarsPhotos photo) {
+        return photo.getCamera() == null || photo.getCamera().getName() == null ? "" : photo.getCamera().getName();
+    }
+
+    /**
+     * The {@code CameraSample} class holds the photos of a camera sampled while a feed is read.
+     */
+    private static class CameraSample {
+        private MarsPhotos fresh;
+        private MarsPhotos recent;
+        private long freshCount;
+        private long recentCount;
+        private long weight;
+
+        /**
+         * Counts a photo of the camera and keeps it as the sample of its kind with the probability that makes
+         * every photo of that kind equally likely to be kept.
+         *
+         * @param photo    the photo.
+         * @param isRecent {@code true} if the photo was sent to the chat recently.
+         * @param random   the source of randomness.
+         */
+        private void add(MarsPhotos photo, boolean isRecent, RandomGenerator random) {
+            if (isRecent) {
+                if (random.nextLong(++recentCount) == 0)
+                    recent = photo;
+            } else if (random.nextLong(++freshCount) == 0)
+                fresh = photo;
+        }
+    }
+}
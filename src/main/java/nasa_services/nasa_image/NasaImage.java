@@ -1,24 +1,22 @@
 package nasa_services.nasa_image;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import errors.UserInputError;
-import logging.TelegramLog;
+import config.EndpointConfig;
 import lombok.Data;
+import nasa_services.client.NasaEndpoint;
+import nasa_services.client.NasaHttpClient;
+import nasa_services.client.NasaJson;
 import nasa_services.nasa_image.image_utils.Items;
 import nasa_services.nasa_image.image_utils.NasaImageCollection;
-import org.apache.hc.client5.http.classic.methods.HttpGet;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
-import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import utils.DateUtils;
 import utils.Emojis;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The {@code NasaImage} class provides methods for retrieving NASA images based on search terms.
@@ -26,45 +24,61 @@ import java.util.Random;
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class NasaImage {
-    private static final String BASE_URL = "https://images-api.nasa.gov/search?q=";
+    private final String baseUrl;
+    private final NasaHttpClient httpClient;
+    private final SearchResultCache searchResultCache;
+
+    /**
+     * Constructs a new {@code NasaImage} that fetches data through the shared HTTP client.
+     * <p>The search results are kept in the {@link SearchResultCache}.
+     *
+     * @param httpClient     the shared {@link NasaHttpClient}.
+     * @param endpointConfig the base URLs of the APIs.
+     */
+    public NasaImage(NasaHttpClient httpClient, EndpointConfig endpointConfig) {
+        this.baseUrl = endpointConfig.getNasaImagesUrl() + "/search?q=";
+        this.httpClient = httpClient;
+        this.searchResultCache = new SearchResultCache(this::fetchPage);
+    }
 
     /**
      * Fetches a NASA image based on the provided search term.
+     * <p>Repeated searches are served from the {@link SearchResultCache}, stepping through the results without repeats.
+     *
+     * @param searchTerm the received message, i.e. the command followed by the term to search for NASA images.
+     * @return the future image, completed with {@code null} if the search term is missing or has no results,
+     * or exceptionally if the request fails.
+     */
+    public CompletableFuture<Items> getNasaImage(String searchTerm) {
+        String[] parts = searchTerm.trim().split("\\s+", 2);
+        return parts.length > 1 ? searchResultCache.next(parts[1]) : CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Fetches a page of NASA images matching the query, unless the response is still cached on disk.
+     * <p>The response is kept on disk as long as the {@link SearchResultCache} keeps the results in memory,
+     * and returned with the time it was fetched at, so the cache expires a page read from disk by its original age.
      *
-     * @param searchTerm the term to search for NASA images.
-     * @return the formatted message containing information about the image.
+     * @param query the normalized query.
+     * @param page  the number of the page, starting at 1.
+     * @return the future images on the page with the time they were fetched at,
+     * completed exceptionally if the request fails or the response cannot be parsed.
      */
-    public String getNasaImage(String searchTerm) {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            ObjectMapper mapper = new ObjectMapper();
-            CloseableHttpResponse response = httpClient.execute(new HttpGet(generateUrl(searchTerm)));
-            NasaImageCollection imageCollection = mapper.readValue(response.getEntity().getContent(), NasaImageCollection.class);
-            List<Items> items = imageCollection.getCollectionData().getItems();
-            int index = new Random().nextInt(items.size());
-            return createPost(items.get(index));
-        } catch (Exception e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
-            return UserInputError.INVALID_SEARCH_TERM;
-        }
+    public CompletableFuture<NasaHttpClient.Fetched<List<Items>>> fetchPage(String query, int page) {
+        return httpClient.<NasaImageCollection>getFetchedAsync(NasaEndpoint.NASA_IMAGE, generateUrl(query, page), SearchResultCache.DEFAULT_TTL, NasaJson.NASA_IMAGE::readValue)
+                .thenApply(fetched -> fetched.map(imageCollection -> imageCollection.getCollectionData().getItems()));
     }
 
     /**
-     * Generates the URL for fetching NASA images based on the search term.
+     * Generates the URL for fetching a page of NASA images based on the query.
      *
-     * @param searchTerm the term to search for NASA images.
+     * @param query the term to search for NASA images.
+     * @param page  the number of the page, starting at 1.
      * @return the generated URL for fetching images.
      */
-    public String generateUrl(String searchTerm) {
-        String[] searchTerms = searchTerm.split(" ");
-        StringBuilder url = new StringBuilder();
-        url.append(BASE_URL);
-        for (int i = 1; i < searchTerms.length; i++) {
-            url.append(searchTerms[i]);
-            if ((i + 1) == searchTerms.length)
-                return url.append("&media_type=image").toString();
-            url.append("%20");
-        }
-        return url.append("&media_type=image").toString();
+    public String generateUrl(String query, int page) {
+        return baseUrl + URLEncoder.encode(query, StandardCharsets.UTF_8) + "&media_type=image"
+                + "&page=" + page + "&page_size=" + SearchResultCache.PageLoader.PAGE_SIZE;
     }
 
     /**
@@ -73,7 +87,7 @@ public class NasaImage {
      * @param items the NASA image object containing information.
      * @return the formatted post.
      */
-    public String createPost(Items items) {
+    public static String createPost(Items items) {
         return Emojis.PAGE + items.getData().getFirst().getTitle() + "\n\n" +
                 Emojis.DATE + " Launch Date: " + DateUtils.dateTimeFormatter(items.getData().getFirst().getDate_created(), DateTimeFormatter.ISO_DATE_TIME.toString(), "MMMM d, yyyy HH:mm:ss", Locale.ENGLISH) + "\n\n" +
                 Emojis.PICTURE + " HD Image Link\n" + items.getLinks().getFirst().getHref() + "\n\n" +
@@ -86,7 +100,7 @@ public class NasaImage {
      * @param text the original description text of the NASA image.
      * @return the filtered description text.
      */
-    public String filterText(String text) {
+    public static String filterText(String text) {
         int index = text.toLowerCase().indexOf("image credit:");
 //        index = (text.lastIndexOf("Image") == index - 1) ? index - 1 : index;
         if (index != -1)
@@ -0,0 +1,306 @@
+package nasa_services.nasa_image;
+
+import metrics.BotMetrics;
+import nasa_services.client.NasaHttpClient;
+import nasa_services.nasa_image.image_utils.Items;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code SearchResultCache} class keeps the results of NASA Image Library searches keyed by the normalized query.
+ * <p>The results of a query are stepped through in a random order without repeats. The next page of results
+ * is fetched only once the cached ones run out, and the results start over in a new order once all pages are used.
+ * A query expires {@link SearchResultCache#DEFAULT_TTL} after its oldest page was fetched from NASA, which may be
+ * before it was cached here if the page was read from disk. The least recently
+ * used queries are evicted once the cache holds too many queries or too many results in total,
+ * so a few queries stepping through many pages cannot fill the memory.
+ */
+public class SearchResultCache {
+    public static final Duration DEFAULT_TTL = Duration.ofHours(6);
+    public static final int DEFAULT_MAX_SIZE = 500;
+    public static final int DEFAULT_MAX_ITEMS = 20_000;
+    /**
+     * The last page of results NASA Image Library serves for a query.
+     */
+    public static final int MAX_PAGES = 100;
+
+    private final PageLoader loader;
+    private final long ttl;
+    private final int maxItems;
+    private final Map<String, SearchResults> queries;
+    /**
+     * The number of results held by all cached queries.
+     */
+    private int totalItems;
+
+    /**
+     * Constructs a new {@code SearchResultCache} with the {@link SearchResultCache#DEFAULT_TTL},
+     * the {@link SearchResultCache#DEFAULT_MAX_SIZE} and the {@link SearchResultCache#DEFAULT_MAX_ITEMS}.
+     *
+     * @param loader the loader fetching a page of results.
+     */
+    public SearchResultCache(PageLoader loader) {
+        this(loader, DEFAULT_TTL, DEFAULT_MAX_SIZE, DEFAULT_MAX_ITEMS);
+    }
+
+    /**
+     * Constructs a new {@code SearchResultCache}.
+     *
+     * @param loader   the loader fetching a page of results.
+     * @param ttl      the time the results of a query are kept for.
+     * @param maxSize  the maximum number of cached queries.
+     * @param maxItems the maximum number of results held by all cached queries.
+     */
+    public SearchResultCache(PageLoader loader, Duration ttl, int maxSize, int maxItems) {
+        this.loader = loader;
+        this.ttl = ttl.toMillis();
+        this.maxItems = maxItems;
+        this.queries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SearchResults> eldest) {
+                if (size() <= maxSize)
+                    return false;
+                totalItems -= eldest.getValue().itemCount;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets the next result of the query.
+     * <p>The result is only waited for if the query is not cached or its cached results ran out.
+     *
+     * @param searchTerm the search term.
+     * @return the future next result, completed with {@code null} if the query has no results
+     * or exceptionally if a page of results cannot be fetched.
+     */
+    public CompletableFuture<Items> next(String searchTerm) {
+        String query = normalize(searchTerm);
+        SearchResults results = getResults(query);
+        return results.next().thenApply(item -> {
+            if (item == null)
+                remove(query, results);
+            return item;
+        });
+    }
+
+    /**
+     * Gets the number of results held by all cached queries.
+     *
+     * @return the number of cached results.
+     */
+    public synchronized int getTotalItems() {
+        return totalItems;
+    }
+
+    /**
+     * Gets the number of cached queries.
+     *
+     * @return the number of cached queries.
+     */
+    public synchronized int size() {
+        return queries.size();
+    }
+
+    /**
+     * Normalizes the search term, so that the same query in different case or spacing shares its results.
+     *
+     * @param searchTerm the search term.
+     * @return the lowercase search term with single spaces between the words.
+     */
+    public static String normalize(String searchTerm) {
+        return searchTerm.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets the cached results of the query, replacing them if they have expired.
+     *
+     * @param query the normalized query.
+     * @return the results of the query.
+     */
+    private synchronized SearchResults getResults(String query) {
+        SearchResults results = queries.get(query);
+        if (results == null || results.fetchedAt + ttl <= System.currentTimeMillis()) {
+            results = new SearchResults(query);
+            SearchResults previous = queries.put(query, results);
+            if (previous != null)
+                totalItems -= previous.itemCount;
+        }
+        return results;
+    }
+
+    /**
+     * Removes the results of the query if they were not replaced in the meantime.
+     *
+     * @param query   the normalized query.
+     * @param results the results to remove.
+     */
+    private synchronized void remove(String query, SearchResults results) {
+        if (queries.remove(query, results))
+            totalItems -= results.itemCount;
+    }
+
+    /**
+     * Counts the results added to the query, evicting the least recently used other queries
+     * while the cache holds more than the maximum number of results.
+     *
+     * @param results the results of the query.
+     * @param count   the number of added results.
+     */
+    private synchronized void addItems(SearchResults results, int count) {
+        if (queries.get(results.query) != results)
+            return;
+        results.itemCount += count;
+        totalItems += count;
+        Iterator<SearchResults> iterator = queries.values().iterator();
+        while (totalItems > maxItems && iterator.hasNext()) {
+            SearchResults eldest = iterator.next();
+            if (eldest == results)
+                continue;
+            totalItems -= eldest.itemCount;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The {@code SearchResults} class holds the fetched results of a query and the position of the next result.
+     */
+    private class SearchResults {
+        private final String query;
+        /**
+         * The time the oldest page was fetched from NASA at, or the creation time if no page has been fetched yet.
+         */
+        private volatile long fetchedAt = System.currentTimeMillis();
+        private final List<Items> items = new ArrayList<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private int cursor;
+        private int fetchedPages;
+        private boolean lastPageFetched;
+        /**
+         * The number of results counted in the total of the cache, guarded by the cache.
+         */
+        private int itemCount;
+        /**
+         * The fetch of the next page, or {@code null} if no page is being fetched.
+         */
+        private CompletableFuture<Void> pendingPage;
+
+        private SearchResults(String query) {
+            this.query = query;
+        }
+
+        /**
+         * Gets the next result, fetching the next page if the fetched results ran out.
+         * <p>Callers arriving while a page is being fetched wait for the same page.
+         *
+         * @return the future next result, completed with {@code null} if the query has no results.
+         */
+        private CompletableFuture<Items> next() {
+            CompletableFuture<Void> page;
+            lock.lock();
+            try {
+                if (cursor < items.size() || lastPageFetched) {
+                    BotMetrics.cacheLookups("nasa_image_search", "hit").increment();
+                    return CompletableFuture.completedFuture(take());
+                }
+                if (pendingPage == null) {
+                    BotMetrics.cacheLookups("nasa_image_search", "miss").increment();
+                    // The page is forgotten by the stages below, which run before any caller waiting for it
+                    CompletableFuture<Void> loading = loader.load(query, fetchedPages + 1)
+                            .thenAccept(this::addPage)
+                            .whenComplete((result, throwable) -> {
+                                if (throwable != null)
+                                    clearPendingPage();
+                            });
+                    if (loading.isDone())
+                        return loading.thenCompose(loaded -> next());
+                    pendingPage = loading;
+                }
+                page = pendingPage;
+            } finally {
+                lock.unlock();
+            }
+            return page.thenCompose(loaded -> next());
+        }
+
+        /**
+         * Adds the fetched page to the results in a random order and forgets the page being fetched,
+         * so the callers waiting for it fetch the following page if its results are not enough for all of them.
+         *
+         * @param results the results on the page with the time they were fetched at.
+         */
+        private void addPage(NasaHttpClient.Fetched<List<Items>> results) {
+            List<Items> page = new ArrayList<>(results.value());
+            Collections.shuffle(page, ThreadLocalRandom.current());
+            lock.lock();
+            try {
+                fetchedPages++;
+                lastPageFetched = page.size() < PageLoader.PAGE_SIZE || fetchedPages == MAX_PAGES;
+                items.addAll(page);
+                fetchedAt = Math.min(fetchedAt, results.fetchedAt());
+                pendingPage = null;
+            } finally {
+                lock.unlock();
+            }
+            addItems(this, page.size());
+        }
+
+        /**
+         * Forgets the page being fetched once it has failed, so the next caller tries to fetch it again.
+         */
+        private void clearPendingPage() {
+            lock.lock();
+            try {
+                pendingPage = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Takes the next fetched result, starting over in a new order once all results are used.
+         *
+         * @return the next result, or {@code null} if the query has no results.
+         */
+        private Items take() {
+            if (items.isEmpty())
+                return null;
+            if (cursor == items.size()) {
+                Collections.shuffle(items, ThreadLocalRandom.current());
+                cursor = 0;
+            }
+            return items.get(cursor++);
+        }
+    }
+
+    /**
+     * The {@code PageLoader} interface fetches a page of results of a query.
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+        /**
+         * The number of results on a page.
+         */
+        int PAGE_SIZE = 100;
+
+        /**
+         * Fetches a page of results.
+         *
+         * @param query the normalized query.
+         * @param page  the number of the page, starting at 1.
+         * @return the future results on the page with the time they were fetched from NASA at,
+         * completed exceptionally if the page cannot be fetched.
+         */
+        CompletableFuture<NasaHttpClient.Fetched<List<Items>>> load(String query, int page);
+    }
+}
@@ -0,0 +1,41 @@
+package sessions;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The {@code ChatSession} class holds the conversation state of a single chat.
+ */
+@Getter
+@Setter
+public class ChatSession {
+    public static final int RECENT_PHOTOS_LIMIT = 20;
+
+    private volatile ChatState state = ChatState.IDLE;
+    /**
+     * ID of the last message with inline keyboard buttons sent to the chat.
+     */
+    private volatile Integer lastMessageId;
+    /**
+     * Time of the last access to the session in milliseconds.
+     */
+    private volatile long lastAccessTime = System.currentTimeMillis();
+    /**
+     * IDs of the last Mars rover photos sent to the chat, so that they are not sent again soon.
+     */
+    private final RecentItems recentPhotos = new RecentItems(RECENT_PHOTOS_LIMIT);
+
+    /**
+     * Marks the session as accessed now.
+     */
+    public void touch() {
+        lastAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Resets the conversation of the chat to {@link ChatState#IDLE}.
+     */
+    public void reset() {
+        state = ChatState.IDLE;
+    }
+}
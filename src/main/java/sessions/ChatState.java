@@ -0,0 +1,45 @@
+package sessions;
+
+/**
+ * The {@code ChatState} enum represents the step of a conversation a chat is currently in,
+ * i.e. which command is waiting for the next input of the user.
+ */
+public enum ChatState {
+    /**
+     * No command is waiting for input.
+     */
+    IDLE,
+    /**
+     * {@link commands.Command#APOD} is waiting for a date.
+     */
+    APOD,
+    /**
+     * {@link commands.Command#EPIC} is waiting for a date.
+     */
+    EPIC,
+    /**
+     * {@link commands.Command#ROVER} is waiting for a rover to be chosen.
+     */
+    ROVER,
+    /**
+     * {@link commands.Command#ROVER_INFO} is waiting for a rover to be chosen.
+     */
+    ROVER_INFO,
+    /**
+     * {@link commands.Command#ROVER} is waiting for a date for the Curiosity rover.
+     */
+    CURIOSITY,
+    /**
+     * {@link commands.Command#ROVER} is waiting for a date for the Perseverance rover.
+     */
+    PERSEVERANCE;
+
+    /**
+     * Checks if the state belongs to the {@link commands.Command#ROVER} conversation.
+     *
+     * @return {@code true} if the Mars rover photos are being requested, otherwise {@code false}.
+     */
+    public boolean isRoverPhotoRequest() {
+        return this == ROVER || this == CURIOSITY || this == PERSEVERANCE;
+    }
+}
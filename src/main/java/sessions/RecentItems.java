@@ -0,0 +1,44 @@
+package sessions;
+
+import java.util.LinkedHashSet;
+import java.util.SequencedSet;
+
+/**
+ * The {@code RecentItems} class remembers the IDs of the last items sent to a chat,
+ * forgetting the oldest ones once its capacity is reached.
+ */
+public class RecentItems {
+    private final int capacity;
+    private final SequencedSet<Long> ids = new LinkedHashSet<>();
+
+    /**
+     * Constructs a new {@code RecentItems}.
+     *
+     * @param capacity the maximum number of remembered IDs.
+     */
+    public RecentItems(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Remembers the ID as the most recent one.
+     *
+     * @param id the ID of the item.
+     */
+    public synchronized void add(long id) {
+        ids.remove(id);
+        ids.addLast(id);
+        if (ids.size() > capacity)
+            ids.removeFirst();
+    }
+
+    /**
+     * Checks if the ID is one of the recent ones.
+     *
+     * @param id the ID of the item.
+     * @return {@code true} if the item was sent recently, {@code false} otherwise.
+     */
+    public synchronized boolean contains(long id) {
+        return ids.contains(id);
+    }
+}
@@ -0,0 +1,72 @@
+package sessions;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code SessionStore} class keeps a {@link ChatSession} per chat ID.
+ * <p>Sessions that have not been accessed for the idle timeout are removed periodically,
+ * so the memory stays bounded no matter how many chats pass through the bot.
+ */
+public class SessionStore {
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(30);
+    private static final Duration SWEEP_INTERVAL = Duration.ofMinutes(1);
+
+    private final Map<Long, ChatSession> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new {@code SessionStore} with the {@link SessionStore#DEFAULT_IDLE_TIMEOUT}.
+     */
+    public SessionStore() {
+        this(DEFAULT_IDLE_TIMEOUT);
+    }
+
+    /**
+     * Constructs a new {@code SessionStore} and schedules the removal of idle sessions.
+     *
+     * @param idleTimeout the time after which an unused session is removed.
+     */
+    public SessionStore(Duration idleTimeout) {
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        scheduler.scheduleAtFixedRate(this::removeIdleSessions, SWEEP_INTERVAL.toMillis(), SWEEP_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the session of the chat, creating a new one if there is none.
+     *
+     * @param chatId the ID of the chat.
+     * @return the session of the chat.
+     */
+    public ChatSession getSession(Long chatId) {
+        ChatSession session = sessions.computeIfAbsent(chatId, id -> new ChatSession());
+        session.touch();
+        return session;
+    }
+
+    /**
+     * Returns the number of stored sessions.
+     *
+     * @return the number of sessions.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Removes the sessions that have been idle for longer than the idle timeout.
+     */
+    private void removeIdleSessions() {
+        long expiredBefore = System.currentTimeMillis() - idleTimeoutMillis;
+        sessions.values().removeIf(session -> session.getLastAccessTime() < expiredBefore);
+    }
+}
@@ -0,0 +1,209 @@
+package subscriptions;
+
+import app.AstroBot;
+import logging.TelegramLog;
+import metrics.BotMetrics;
+import nasa_services.apod.ApodCache;
+import nasa_services.apod.ApodPost;
+import nasa_services.client.NasaHttpClient;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import telegram.SendPriority;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code ApodBroadcaster} class sends the APOD to every chat of the {@link SubscriberStore} once a day.
+ * <p>The APOD is fetched and rendered once per broadcast, then sent to the subscribers in ascending order of their IDs
+ * as {@link SendPriority#BULK} photos, so interactive replies are not held up by the broadcast.
+ * The first subscriber is sent to alone, so that the others get the photo by the {@code file_id} it returns
+ * instead of Telegram downloading the image for every chat.
+ * The subscribers are sent to in batches, and the last chat of every delivered batch is saved to a checkpoint file,
+ * so a broadcast interrupted by a restart resumes where it stopped instead of starting over.
+ * <p>Chats that have blocked the bot are unsubscribed.
+ */
+public class ApodBroadcaster {
+    /**
+     * The time after the APOD rollover the broadcast starts at, leaving NASA time to publish the new APOD.
+     */
+    private static final Duration BROADCAST_DELAY = Duration.ofMinutes(30);
+    /**
+     * The time after which a broadcast is tried again if the APOD cannot be fetched yet.
+     */
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(15);
+    private static final int BATCH_SIZE = 50;
+    /**
+     * The last chat ID of a checkpoint whose broadcast is complete.
+     */
+    private static final long COMPLETED = Long.MAX_VALUE;
+
+    private final AstroBot bot;
+    private final SubscriberStore subscriberStore;
+    private final Path checkpointFile;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "apod-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Constructs a new {@code ApodBroadcaster}.
+     *
+     * @param bot             the instance of the {@link AstroBot}.
+     * @param subscriberStore the chats to send the APOD to.
+     * @param checkpointFile  the file the progress of the broadcast is saved to.
+     */
+    public ApodBroadcaster(AstroBot bot, SubscriberStore subscriberStore, Path checkpointFile) {
+        this.bot = bot;
+        this.subscriberStore = subscriberStore;
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Starts the broadcasts. Today's broadcast is resumed right away if it has not been completed yet.
+     */
+    public void start() {
+        scheduler.execute(this::broadcast);
+    }
+
+    /**
+     * Broadcasts today's APOD to the subscribers it has not reached yet, then schedules the next broadcast.
+     */
+    private void broadcast() {
+        LocalDate date = ApodCache.getCurrentApodDate();
+        try {
+            long lastChatId = readCheckpoint(date);
+            if (lastChatId != COMPLETED && !subscriberStore.getSubscribersAfter(lastChatId).isEmpty()) {
+                ApodPost post = bot.getApod().getUrlForSpecifiedDate(date).join();
+                fanOut(date, post, lastChatId);
+            }
+            writeCheckpoint(date, COMPLETED);
+            scheduleNext();
+        } catch (CompletionException e) {
+            Throwable cause = NasaHttpClient.unwrap(e);
+            TelegramLog.logging("The APOD broadcast of " + date + " is retried in " + RETRY_DELAY.toMinutes() + " minutes: " + cause);
+            scheduler.schedule(this::broadcast, RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+            scheduleNext();
+        }
+    }
+
+    /**
+     * Sends the post to the subscribers after the specified chat, saving a checkpoint after every batch.
+     * <p>Failures are counted and logged once at the end, so a broadcast to many unreachable chats does not flood the log.
+     *
+     * @param date       the date of the APOD.
+     * @param post       the rendered APOD post.
+     * @param lastChatId the last chat the post has already been sent to.
+     */
+    private void fanOut(LocalDate date, ApodPost post, long lastChatId) {
+        List<Long> subscribers = subscriberStore.getSubscribersAfter(lastChatId);
+        AtomicInteger failures = new AtomicInteger();
+        for (int from = 0; from < subscribers.size(); ) {
+            // The first batch is a single chat, so the others reuse the file_id of its photo
+            int to = Math.min(from == 0 ? 1 : from + BATCH_SIZE, subscribers.size());
+            List<Long> batch = subscribers.subList(from, to);
+            List<CompletableFuture<Void>> deliveries = new ArrayList<>(batch.size());
+            for (Long chatId : batch)
+                deliveries.add(send(chatId, post, failures));
+            CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).join();
+            writeCheckpoint(date, batch.getLast());
+            from = to;
+        }
+        if (failures.get() > 0)
+            TelegramLog.logging("The APOD broadcast of " + date + " failed for " + failures.get() + " of " + subscribers.size() + " chats.");
+    }
+
+    /**
+     * Sends the post to the chat on a virtual thread. A chat that has blocked the bot is unsubscribed.
+     *
+     * @param chatId   the ID of the chat.
+     * @param post     the rendered APOD post.
+     * @param failures the number of failed deliveries of the broadcast.
+     * @return the future completed once the post is delivered or has failed; it never completes exceptionally.
+     */
+    private CompletableFuture<Void> send(Long chatId, ApodPost post, AtomicInteger failures) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                bot.sendPhoto(chatId, SendPriority.BULK, post.imageUrl(), post.text());
+                BotMetrics.broadcastMessages("sent").increment();
+            } catch (TelegramApiRequestException e) {
+                if (Integer.valueOf(403).equals(e.getErrorCode())) {
+                    BotMetrics.broadcastMessages("blocked").increment();
+                    subscriberStore.unsubscribe(chatId);
+                } else {
+                    BotMetrics.broadcastMessages("failed").increment();
+                    failures.incrementAndGet();
+                }
+            } catch (TelegramApiException e) {
+                BotMetrics.broadcastMessages("failed").increment();
+                failures.incrementAndGet();
+            }
+        }, executor);
+    }
+
+    /**
+     * Schedules the next broadcast shortly after the next APOD rollover.
+     */
+    private void scheduleNext() {
+        ZonedDateTime next = ApodCache.getNextRolloverTime().plus(BROADCAST_DELAY);
+        long delay = Duration.between(ZonedDateTime.now(), next).toMillis();
+        scheduler.schedule(this::broadcast, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the last chat the broadcast of the specified date has reached.
+     *
+     * @param date the date of the broadcast.
+     * @return the ID of the last chat, {@link ApodBroadcaster#COMPLETED} if the broadcast is complete,
+     * or {@link Long#MIN_VALUE} if it has not started yet.
+     */
+    private long readCheckpoint(LocalDate date) {
+        if (!Files.exists(checkpointFile))
+            return Long.MIN_VALUE;
+        try {
+            String[] checkpoint = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim().split(" ");
+            return checkpoint.length == 2 && checkpoint[0].equals(date.toString()) ? Long.parseLong(checkpoint[1]) : Long.MIN_VALUE;
+        } catch (IOException | NumberFormatException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Saves the last chat the broadcast of the specified date has reached, replacing the previous checkpoint atomically.
+     *
+     * @param date       the date of the broadcast.
+     * @param lastChatId the ID of the last chat, or {@link ApodBroadcaster#COMPLETED}.
+     */
+    private void writeCheckpoint(LocalDate date, long lastChatId) {
+        try {
+            if (checkpointFile.getParent() != null)
+                Files.createDirectories(checkpointFile.getParent());
+            Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.writeString(tempFile, date + " " + lastChatId, StandardCharsets.UTF_8);
+            Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package subscriptions;
+
+import logging.TelegramLog;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The {@code SubscriberStore} class keeps the IDs of the chats subscribed to the daily APOD.
+ * <p>The IDs are kept sorted, so a broadcast can resume after the last chat it reached.
+ * The store is saved to a snapshot file after every change and loaded from it at startup.
+ */
+public class SubscriberStore {
+    private final Path snapshotFile;
+    private final NavigableSet<Long> subscribers = new ConcurrentSkipListSet<>();
+
+    /**
+     * Constructs a new {@code SubscriberStore} backed by the specified snapshot file.
+     *
+     * @param snapshotFile the file the subscribers are saved to and loaded from.
+     */
+    public SubscriberStore(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Loads the subscribers from the snapshot file if it exists.
+     */
+    public void load() {
+        if (!Files.exists(snapshotFile))
+            return;
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            int count = inputStream.readInt();
+            for (int i = 0; i < count; i++)
+                subscribers.add(inputStream.readLong());
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Subscribes the chat and saves the snapshot.
+     *
+     * @param chatId the ID of the chat.
+     * @return {@code true} if the chat was subscribed, {@code false} if it already was.
+     */
+    public boolean subscribe(Long chatId) {
+        if (!subscribers.add(chatId))
+            return false;
+        save();
+        return true;
+    }
+
+    /**
+     * Unsubscribes the chat and saves the snapshot.
+     *
+     * @param chatId the ID of the chat.
+     * @return {@code true} if the chat was unsubscribed, {@code false} if it was not subscribed.
+     */
+    public boolean unsubscribe(Long chatId) {
+        if (!subscribers.remove(chatId))
+            return false;
+        save();
+        return true;
+    }
+
+    /**
+     * Checks if the chat is subscribed.
+     *
+     * @param chatId the ID of the chat.
+     * @return {@code true} if the chat is subscribed, {@code false} otherwise.
+     */
+    public boolean isSubscribed(Long chatId) {
+        return subscribers.contains(chatId);
+    }
+
+    /**
+     * Gets the subscribers with an ID greater than the specified one, in ascending order.
+     *
+     * @param chatId the ID to start after.
+     * @return a copy of the subscribers after the ID.
+     */
+    public List<Long> getSubscribersAfter(long chatId) {
+        return new ArrayList<>(subscribers.tailSet(chatId, false));
+    }
+
+    /**
+     * Returns the number of subscribers.
+     *
+     * @return the number of subscribed chats.
+     */
+    public int size() {
+        return subscribers.size();
+    }
+
+    /**
+     * Saves the subscribers to the snapshot file, replacing the previous snapshot atomically.
+     */
+    private synchronized void save() {
+        try {
+            if (snapshotFile.getParent() != null)
+                Files.createDirectories(snapshotFile.getParent());
+            Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            List<Long> snapshot = new ArrayList<>(subscribers);
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                outputStream.writeInt(snapshot.size());
+                for (Long chatId : snapshot)
+                    outputStream.writeLong(chatId);
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package telegram;
+
+import logging.TelegramLog;
+import metrics.BotMetrics;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code FileIdCache} class remembers the {@code file_id} Telegram assigns to a photo sent by its URL,
+ * keyed by the source URL, so that later sends of the same image reuse the uploaded file
+ * instead of making Telegram download it again.
+ * <p>The least recently used entries are evicted once the cache is full. The cache is saved to a snapshot file
+ * periodically if it has changed, and loaded from it at startup.
+ */
+public class FileIdCache {
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final Duration SAVE_INTERVAL = Duration.ofMinutes(1);
+
+    private final Path snapshotFile;
+    private final Map<String, String> fileIds;
+    private boolean dirty;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "file-id-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new {@code FileIdCache} with the {@link FileIdCache#DEFAULT_MAX_SIZE}.
+     *
+     * @param snapshotFile the file the cache is saved to and loaded from.
+     */
+    public FileIdCache(Path snapshotFile) {
+        this(snapshotFile, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a new {@code FileIdCache} holding at most the specified number of file IDs,
+     * and schedules the saving of its snapshot.
+     *
+     * @param snapshotFile the file the cache is saved to and loaded from.
+     * @param maxSize      the maximum number of cached file IDs.
+     */
+    public FileIdCache(Path snapshotFile, int maxSize) {
+        this.snapshotFile = snapshotFile;
+        this.fileIds = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+        scheduler.scheduleWithFixedDelay(this::save, SAVE_INTERVAL.toMillis(), SAVE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the file ID of the image.
+     *
+     * @param url the source URL of the image.
+     * @return the file ID, or {@code null} if the image has not been sent yet.
+     */
+    public synchronized String get(String url) {
+        String fileId = fileIds.get(url);
+        BotMetrics.cacheLookups("telegram_file_id", fileId == null ? "miss" : "hit").increment();
+        return fileId;
+    }
+
+    /**
+     * Caches the file ID of the image.
+     *
+     * @param url    the source URL of the image.
+     * @param fileId the file ID returned by Telegram.
+     */
+    public synchronized void put(String url, String fileId) {
+        if (!fileId.equals(fileIds.put(url, fileId)))
+            dirty = true;
+    }
+
+    /**
+     * Removes the file ID of the image, e.g. after Telegram has rejected it.
+     *
+     * @param url the source URL of the image.
+     */
+    public synchronized void remove(String url) {
+        if (fileIds.remove(url) != null)
+            dirty = true;
+    }
+
+    /**
+     * Returns the number of cached file IDs.
+     *
+     * @return the number of file IDs.
+     */
+    public synchronized int size() {
+        return fileIds.size();
+    }
+
+    /**
+     * Loads the cache from the snapshot file if it exists.
+     */
+    public void load() {
+        if (!Files.exists(snapshotFile))
+            return;
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            int count = inputStream.readInt();
+            synchronized (this) {
+                for (int i = 0; i < count; i++)
+                    fileIds.put(inputStream.readUTF(), inputStream.readUTF());
+            }
+        } catch (IOException e) {
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+
+    /**
+     * Saves the cache to the snapshot file if it has changed, replacing the previous snapshot atomically.
+     * <p>The entries are saved from the least to the most recently used, so loading them restores their order.
+     */
+    public void save() {
+        List<Map.Entry<String, String>> snapshot;
+        synchronized (this) {
+            if (!dirty)
+                return;
+            snapshot = new ArrayList<>(fileIds.size());
+            for (Map.Entry<String, String> entry : fileIds.entrySet())
+                snapshot.add(Map.entry(entry.getKey(), entry.getValue()));
+            dirty = false;
+        }
+        try {
+            if (snapshotFile.getParent() != null)
+                Files.createDirectories(snapshotFile.getParent());
+            Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                outputStream.writeInt(snapshot.size());
+                for (Map.Entry<String, String> entry : snapshot) {
+                    outputStream.writeUTF(entry.getKey());
+                    outputStream.writeUTF(entry.getValue());
+                }
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        }
+    }
+}
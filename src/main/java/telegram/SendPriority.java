@@ -0,0 +1,16 @@
+package telegram;
+
+/**
+ * The {@code SendPriority} enum represents the priority of an outgoing Telegram request.
+ * Requests with a higher priority are sent first when the rate limits are reached.
+ */
+public enum SendPriority {
+    /**
+     * Direct replies to user actions, such as answers and inline keyboards.
+     */
+    INTERACTIVE,
+    /**
+     * Bulk deliveries, such as the frames of an EPIC day.
+     */
+    BULK
+}
@@ -0,0 +1,241 @@
+package telegram;
+
+import metrics.BotMetrics;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@code SendScheduler} class paces the outgoing Telegram requests to stay within the Bot API limits.
+ * <p>Every request waits for a token of the global bucket (30 messages per second by default) and of the bucket of its chat:
+ * one message per second with short bursts in private chats, 20 messages per minute in groups.
+ * Waiting requests are sent by {@link SendPriority}, so interactive replies overtake bulk deliveries.
+ * A request rejected with {@code 429 Too Many Requests} is retried after the time Telegram asks for.
+ * <p>The latency and errors of the requests are recorded in {@link BotMetrics}.
+ */
+public class SendScheduler {
+    public static final double DEFAULT_GLOBAL_RATE_PER_SECOND = 30;
+    private static final double CHAT_RATE_PER_SECOND = 1;
+    private static final double CHAT_BURST = 3;
+    private static final double GROUP_RATE_PER_SECOND = 20 / 60d;
+    private static final double GROUP_BURST = 3;
+    private static final int MAX_RETRIES = 3;
+    private static final long BUCKET_SWEEP_INTERVAL_SECONDS = 60;
+
+    private final PriorityBlockingQueue<SendTask<?>> queue = new PriorityBlockingQueue<>(64,
+            Comparator.<SendTask<?>, SendPriority>comparing(task -> task.priority).thenComparingLong(task -> task.sequence));
+    private final TokenBucket globalBucket;
+    /**
+     * Map of chat IDs to their buckets. Buckets that are full again are removed periodically.
+     */
+    private final Map<Long, TokenBucket> chatBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    /**
+     * The free connections of the Telegram client to the Bot API. A request waiting for a connection
+     * of its pool pins the virtual thread to its carrier, so no more requests than that are executed at once.
+     */
+    private final Semaphore connections;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "send-scheduler-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new {@code SendScheduler} with the {@link SendScheduler#DEFAULT_GLOBAL_RATE_PER_SECOND}
+     * for a client with the {@link TelegramConnectionPool#DEFAULT_MAX_PER_ROUTE} connections,
+     * and starts its dispatching thread.
+     */
+    public SendScheduler() {
+        this(DEFAULT_GLOBAL_RATE_PER_SECOND, TelegramConnectionPool.DEFAULT_MAX_PER_ROUTE);
+    }
+
+    /**
+     * Constructs a new {@code SendScheduler} and starts its dispatching thread.
+     *
+     * @param globalRatePerSecond   the maximum number of requests per second sent by all chats together.
+     * @param maxConcurrentRequests the number of connections the Telegram client keeps to the Bot API,
+     *                              i.e. the maximum number of requests executed at once.
+     */
+    public SendScheduler(double globalRatePerSecond, int maxConcurrentRequests) {
+        globalBucket = new TokenBucket(globalRatePerSecond, globalRatePerSecond);
+        connections = new Semaphore(maxConcurrentRequests, true);
+        Thread dispatcher = new Thread(this::dispatch, "send-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        scheduler.scheduleAtFixedRate(() -> chatBuckets.values().removeIf(TokenBucket::isFull),
+                BUCKET_SWEEP_INTERVAL_SECONDS, BUCKET_SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues the request and waits for its result.
+     *
+     * @param chatId   the ID of the chat the request is sent to.
+     * @param priority the priority of the request.
+     * @param call     the request to execute.
+     * @param <T>      the type of the result.
+     * @return the result of the request.
+     * @throws TelegramApiException if the request fails or the waiting is interrupted.
+     */
+    public <T> T send(Long chatId, SendPriority priority, TelegramCall<T> call) throws TelegramApiException {
+        try {
+            return submit(chatId, priority, call).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TelegramApiException("Interrupted while waiting to send", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TelegramApiException telegramApiException)
+                throw telegramApiException;
+            throw new TelegramApiException(e.getCause());
+        }
+    }
+
+    /**
+     * Queues the request without waiting for it.
+     *
+     * @param chatId   the ID of the chat the request is sent to.
+     * @param priority the priority of the request.
+     * @param call     the request to execute.
+     * @param <T>      the type of the result.
+     * @return the future result of the request.
+     */
+    public <T> CompletableFuture<T> submit(Long chatId, SendPriority priority, TelegramCall<T> call) {
+        SendTask<T> task = new SendTask<>(chatId, priority, call, sequence.getAndIncrement());
+        queue.add(task);
+        return task.result;
+    }
+
+    /**
+     * Executes the request right away, bypassing the rate limits and the queue.
+     * <p>Meant for requests that do not count as messages (e.g. chat actions); the request still waits
+     * for a free connection to the Bot API.
+     *
+     * @param call the request to execute.
+     * @param <T>  the type of the result.
+     * @return the result of the request.
+     * @throws TelegramApiException if the request fails or the waiting is interrupted.
+     */
+    public <T> T sendUnpaced(TelegramCall<T> call) throws TelegramApiException {
+        try {
+            connections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TelegramApiException("Interrupted while waiting to send", e);
+        }
+        try {
+            return call.call();
+        } finally {
+            connections.release();
+        }
+    }
+
+    /**
+     * Returns the number of requests waiting to be sent.
+     *
+     * @return the number of queued requests.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Takes the queued requests in priority order and sends each one as soon as the rate limits allow it.
+     * <p>A request whose chat is out of tokens is put back when its next token is due,
+     * so it does not hold up the requests of other chats. A request is only handed over once a connection
+     * to the Bot API is free, so the waiting ones stay in priority order.
+     */
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            SendTask<?> task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long chatWait = getBucket(task.chatId).tryAcquire();
+            if (chatWait > 0) {
+                scheduler.schedule(() -> queue.add(task), chatWait, TimeUnit.NANOSECONDS);
+                continue;
+            }
+            long globalWait;
+            while ((globalWait = globalBucket.tryAcquire()) > 0)
+                LockSupport.parkNanos(globalWait);
+            try {
+                connections.acquire();
+            } catch (InterruptedException e) {
+                queue.add(task);
+                return;
+            }
+            executor.execute(() -> execute(task));
+        }
+    }
+
+    /**
+     * Executes the request, retrying it later if Telegram responds with {@code 429 Too Many Requests}.
+     * Releases the connection acquired by the dispatcher.
+     *
+     * @param task the request to execute.
+     * @param <T>  the type of the result.
+     */
+    private <T> void execute(SendTask<T> task) {
+        long start = System.nanoTime();
+        try {
+            task.result.complete(task.call.call());
+        } catch (TelegramApiRequestException e) {
+            BotMetrics.telegramErrors(e.getErrorCode() == null ? "error" : String.valueOf(e.getErrorCode())).increment();
+            Integer retryAfter = e.getParameters() == null ? null : e.getParameters().getRetryAfter();
+            if (Integer.valueOf(429).equals(e.getErrorCode()) && retryAfter != null && task.attempts++ < MAX_RETRIES)
+                scheduler.schedule(() -> queue.add(task), retryAfter, TimeUnit.SECONDS);
+            else
+                task.result.completeExceptionally(e);
+        } catch (Exception e) {
+            BotMetrics.telegramErrors("error").increment();
+            task.result.completeExceptionally(e);
+        } finally {
+            connections.release();
+            BotMetrics.telegramRequestDuration(task.priority.name().toLowerCase()).observeSince(start);
+        }
+    }
+
+    /**
+     * Gets the bucket of the chat. Group chats have negative IDs and a lower rate.
+     *
+     * @param chatId the ID of the chat.
+     * @return the bucket of the chat.
+     */
+    private TokenBucket getBucket(Long chatId) {
+        return chatBuckets.computeIfAbsent(chatId, id -> id < 0
+                ? new TokenBucket(GROUP_BURST, GROUP_RATE_PER_SECOND)
+                : new TokenBucket(CHAT_BURST, CHAT_RATE_PER_SECOND));
+    }
+
+    /**
+     * The {@code SendTask} class represents a queued request.
+     *
+     * @param <T> the type of the result.
+     */
+    private static class SendTask<T> {
+        private final Long chatId;
+        private final SendPriority priority;
+        private final TelegramCall<T> call;
+        /**
+         * Order of submission, keeping requests of the same priority first in, first out.
+         */
+        private final long sequence;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int attempts;
+
+        private SendTask(Long chatId, SendPriority priority, TelegramCall<T> call, long sequence) {
+            this.chatId = chatId;
+            this.priority = priority;
+            this.call = call;
+            this.sequence = sequence;
+        }
+    }
+}
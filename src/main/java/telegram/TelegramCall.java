@@ -0,0 +1,19 @@
+package telegram;
+
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+
+/**
+ * The {@code TelegramCall} interface represents a request to the Telegram Bot API.
+ *
+ * @param <T> the type of the result.
+ */
+@FunctionalInterface
+public interface TelegramCall<T> {
+    /**
+     * Executes the request.
+     *
+     * @return the result of the request.
+     * @throws TelegramApiException if the request fails.
+     */
+    T call() throws TelegramApiException;
+}
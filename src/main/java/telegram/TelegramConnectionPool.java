@@ -0,0 +1,49 @@
+package telegram;
+
+import logging.TelegramLog;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.telegram.telegrambots.bots.DefaultAbsSender;
+
+import java.lang.reflect.Field;
+
+/**
+ * The {@code TelegramConnectionPool} class resizes the connection pool of the HTTP client a bot sends its requests with.
+ * <p>The client is built by the Telegram library from the {@link org.telegram.telegrambots.bots.DefaultBotOptions},
+ * which do not expose the size of its pool, so it keeps the default of two connections to the Bot API.
+ * The pool is therefore resized through the fields of the client once the bot is constructed.
+ */
+public final class TelegramConnectionPool {
+    /**
+     * The number of connections per route of a pool that has not been resized.
+     */
+    public static final int DEFAULT_MAX_PER_ROUTE = 2;
+
+    private TelegramConnectionPool() {
+    }
+
+    /**
+     * Allows the bot to keep the specified number of connections to the Bot API.
+     *
+     * @param sender         the bot whose HTTP client is resized.
+     * @param maxConnections the number of connections to the Bot API.
+     * @return the number of connections the bot may keep, {@link TelegramConnectionPool#DEFAULT_MAX_PER_ROUTE}
+     * if the pool cannot be resized.
+     */
+    public static int resize(DefaultAbsSender sender, int maxConnections) {
+        try {
+            Field httpClientField = DefaultAbsSender.class.getDeclaredField("httpClient");
+            httpClientField.setAccessible(true);
+            Object httpClient = httpClientField.get(sender);
+            Field connectionManagerField = httpClient.getClass().getDeclaredField("connManager");
+            connectionManagerField.setAccessible(true);
+            if (!(connectionManagerField.get(httpClient) instanceof PoolingHttpClientConnectionManager connectionManager))
+                throw new IllegalStateException("The Telegram client does not use a pooling connection manager");
+            connectionManager.setMaxTotal(Math.max(connectionManager.getMaxTotal(), maxConnections));
+            connectionManager.setDefaultMaxPerRoute(maxConnections);
+            return maxConnections;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            TelegramLog.logging("The Telegram connection pool keeps " + DEFAULT_MAX_PER_ROUTE + " connections, it cannot be resized: " + e);
+            return DEFAULT_MAX_PER_ROUTE;
+        }
+    }
+}
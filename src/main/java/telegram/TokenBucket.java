@@ -0,0 +1,60 @@
+package telegram;
+
+/**
+ * The {@code TokenBucket} class limits the rate of an action.
+ * <p>The bucket holds up to {@code capacity} tokens and is refilled at {@code ratePerSecond}.
+ * Every action takes one token, so short bursts up to the capacity are allowed
+ * while the long-term rate stays bounded.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Constructs a new full {@code TokenBucket}.
+     *
+     * @param capacity      the maximum number of tokens.
+     * @param ratePerSecond the number of tokens added per second.
+     */
+    public TokenBucket(double capacity, double ratePerSecond) {
+        this.capacity = capacity;
+        this.tokensPerNano = ratePerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return {@code 0} if a token was taken, otherwise the time in nanoseconds until the next token is available.
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Checks if the bucket is full, i.e. it has not been used for a while.
+     *
+     * @return {@code true} if the bucket holds the maximum number of tokens, {@code false} otherwise.
+     */
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    /**
+     * Adds the tokens accumulated since the last refill.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -1,22 +1,43 @@
 package utils;
 
-import logging.TelegramLog;
-
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
-import java.util.Calendar;
-import java.util.Date;
+import java.time.format.DateTimeParseException;
 import java.util.Locale;
-import java.util.regex.Matcher;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
  * The {@code DateUtils} class provides utility methods for working with dates and date formatting.
+ * <p>The date pattern is compiled once and the formatters are cached by pattern and locale,
+ * since both are immutable and thread-safe.
  */
 public class DateUtils {
+    private static final Pattern DATE_PATTERN = Pattern.compile("^[12]\\d{3}-(0[1-9]|1[0-2])-(0[1-9]|[12]\\d|3[01])$");
+    /**
+     * Map of pattern and locale pairs to their formatters.
+     */
+    private static final Map<FormatterKey, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Parses the date entered by a user in the format "yyyy-MM-dd".
+     * <p>A mistyped or nonexistent date (e.g. 2024-02-30) is an expected input, so it is not logged.
+     *
+     * @param inputDate the input date string.
+     * @return the parsed date, or {@code null} if the input is not a valid date.
+     */
+    public static LocalDate parseDate(String inputDate) {
+        if (inputDate == null || !DATE_PATTERN.matcher(inputDate).matches())
+            return null;
+        try {
+            return LocalDate.parse(inputDate, DateTimeFormatter.ISO_LOCAL_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
     /**
      * Checks if the input date matches the specified date pattern.
      *
@@ -25,15 +46,12 @@ public class DateUtils {
      * @return {@code true} if the input date matches the pattern, otherwise {@code false}.
      */
     public static boolean isValidDateFormat(String datePattern, String inputDate) {
-        Pattern pattern = Pattern.compile("^[12]\\d{3}-(0[1-9]|1[0-2])-(0[1-9]|[12]\\d|3[01])$");
-        Matcher matcher = pattern.matcher(inputDate);
-        if (!(matcher.find()))
+        if (!DATE_PATTERN.matcher(inputDate).matches())
             return false;
         try {
-            LocalDate.parse(inputDate, DateTimeFormatter.ofPattern(datePattern));
+            LocalDate.parse(inputDate, getFormatter(datePattern, null));
             return true;
-        } catch (Exception e) {
-            TelegramLog.logging(e.fillInStackTrace() + "\n" + Arrays.toString(e.getStackTrace()));
+        } catch (DateTimeParseException e) {
             return false;
         }
     }
@@ -48,10 +66,8 @@ public class DateUtils {
      * @return the formatted date string.
      */
     public static String dateFormatter(String inputDate, String inputFormat, String outputFormat, Locale locale) {
-        LocalDate date = LocalDate.parse(inputDate, DateTimeFormatter.ofPattern(inputFormat));
-        if (locale == null)
-            return date.format(DateTimeFormatter.ofPattern(outputFormat));
-        return date.format(DateTimeFormatter.ofPattern(outputFormat, locale));
+        LocalDate date = LocalDate.parse(inputDate, getFormatter(inputFormat, null));
+        return date.format(getFormatter(outputFormat, locale));
     }
 
     /**
@@ -68,9 +84,8 @@ public class DateUtils {
         if (inputFormat.equals(DateTimeFormatter.ISO_DATE_TIME.toString()))
             date = LocalDateTime.parse(inputDateTime, DateTimeFormatter.ISO_DATE_TIME);
         else
-            date = LocalDateTime.parse(inputDateTime, DateTimeFormatter.ofPattern(inputFormat));
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(outputFormat, locale);
-        return date.format(formatter);
+            date = LocalDateTime.parse(inputDateTime, getFormatter(inputFormat, null));
+        return date.format(getFormatter(outputFormat, locale));
     }
 
     /**
@@ -81,10 +96,7 @@ public class DateUtils {
      * @return {@code true} if the first date is after the second date, otherwise {@code false}.
      */
     public static boolean compareDates(String firstDate, String secondDate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        LocalDate inDate = LocalDate.parse(firstDate, formatter);
-        LocalDate constDate = LocalDate.parse(secondDate, formatter);
-        return inDate.isAfter(constDate);
+        return LocalDate.parse(firstDate).isAfter(LocalDate.parse(secondDate));
     }
 
     /**
@@ -94,7 +106,17 @@ public class DateUtils {
      * @return {@code true} if the input date is in the future, otherwise {@code false}.
      */
     public static boolean isFutureDate(String inputDate) {
-        return compareDates(inputDate, getCurrentDate());
+        return isFutureDate(LocalDate.parse(inputDate));
+    }
+
+    /**
+     * Checks if the date is in the future compared to the current date,
+     *
+     * @param date the date to be checked.
+     * @return {@code true} if the date is in the future, otherwise {@code false}.
+     */
+    public static boolean isFutureDate(LocalDate date) {
+        return date.isAfter(LocalDate.now());
     }
 
     /**
@@ -103,8 +125,28 @@ public class DateUtils {
      * @return the current date string.
      */
     public static String getCurrentDate() {
-        SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd");
-        Date date = Calendar.getInstance().getTime();
-        return formatter.format(date);
+        return LocalDate.now().toString();
+    }
+
+    /**
+     * Gets the cached formatter for the pattern and locale, creating it on first use.
+     *
+     * @param pattern the pattern of the formatter.
+     * @param locale  the locale of the formatter (optional, can be null).
+     * @return the formatter.
+     */
+    private static DateTimeFormatter getFormatter(String pattern, Locale locale) {
+        return FORMATTERS.computeIfAbsent(new FormatterKey(pattern, locale), key -> key.locale() == null
+                ? DateTimeFormatter.ofPattern(key.pattern())
+                : DateTimeFormatter.ofPattern(key.pattern(), key.locale()));
+    }
+
+    /**
+     * The {@code FormatterKey} record identifies a cached formatter.
+     *
+     * @param pattern the pattern of the formatter.
+     * @param locale  the locale of the formatter, or {@code null} for the default one.
+     */
+    private record FormatterKey(String pattern, Locale locale) {
     }
 }
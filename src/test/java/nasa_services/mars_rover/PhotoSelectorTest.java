@@ -0,0 +1,91 @@
+package nasa_services.mars_rover;
+
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import sessions.RecentItems;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the weighted selection of the {@link PhotoSelector} on the recorded latest photos of Curiosity,
+ * driven by a seeded source of randomness so that every run makes the same selections.
+ */
+class PhotoSelectorTest {
+    /**
+     * FHAZ is expected three times as often as RHAZ, NAVCAM never.
+     */
+    private static final Map<String, Integer> CAMERA_WEIGHTS = Map.of("FHAZ", 3, "RHAZ", 1, "NAVCAM", 0);
+    private static final int SELECTIONS = 40_000;
+    private static final long SEED = 42;
+    private static final double TOLERANCE = 0.02;
+
+    private static List<MarsPhotos> photos;
+
+    @BeforeAll
+    static void loadLatestPhotos() throws IOException {
+        try (InputStream inputStream = PhotoSelectorTest.class.getResourceAsStream("/fixtures/rover-latest.json")) {
+            assertNotNull(inputStream, "Missing fixture: rover-latest.json");
+            photos = RoverPhotoParser.filter(inputStream.readAllBytes(), CAMERA_WEIGHTS.keySet());
+        }
+    }
+
+    @Test
+    void sameSeedMakesSameSelections() {
+        PhotoSelector selector = new PhotoSelector(photos, CAMERA_WEIGHTS);
+        assertArrayEquals(select(selector, new TreeMap<>()), select(selector, new TreeMap<>()));
+    }
+
+    @Test
+    void selectsCamerasInProportionToTheirWeights() {
+        Map<String, Integer> counts = new TreeMap<>();
+        select(new PhotoSelector(photos, CAMERA_WEIGHTS), counts);
+        assertFalse(counts.containsKey("NAVCAM"), "A camera without a weight was selected");
+        assertEquals(0.75, (double) counts.get("FHAZ") / SELECTIONS, TOLERANCE);
+        assertEquals(0.25, (double) counts.get("RHAZ") / SELECTIONS, TOLERANCE);
+    }
+
+    @Test
+    void avoidsRecentPhotosWhileFreshOnesExist() {
+        PhotoSelector selector = new PhotoSelector(photos, CAMERA_WEIGHTS);
+        long weightedPhotos = photos.stream().filter(photo -> CAMERA_WEIGHTS.get(photo.getCamera().getName()) > 0).count();
+        RecentItems recentPhotos = new RecentItems((int) weightedPhotos);
+        SplittableRandom random = new SplittableRandom(SEED);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < weightedPhotos; i++)
+            assertTrue(ids.add(selector.select(recentPhotos, random).getId()), "A recent photo was repeated");
+    }
+
+    /**
+     * Makes the selections with a source of randomness seeded with {@link PhotoSelectorTest#SEED}, forgetting the sent
+     * photos, so that only the camera weights decide.
+     *
+     * @param selector the selector under test.
+     * @param counts   the map the number of selections of each camera is added to.
+     * @return the IDs of the selected photos in order.
+     */
+    private static long[] select(PhotoSelector selector, Map<String, Integer> counts) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        RecentItems recentPhotos = new RecentItems(0);
+        long[] ids = new long[SELECTIONS];
+        for (int i = 0; i < SELECTIONS; i++) {
+            MarsPhotos photo = selector.select(recentPhotos, random);
+            ids[i] = photo.getId();
+            counts.merge(photo.getCamera().getName(), 1, Integer::sum);
+        }
+        return ids;
+    }
+}
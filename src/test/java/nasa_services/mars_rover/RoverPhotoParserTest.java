@@ -0,0 +1,94 @@
+package nasa_services.mars_rover;
+
+import nasa_services.mars_rover.rover_utils.MarsPhotos;
+import org.junit.jupiter.api.Test;
+import sessions.RecentItems;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the single-pass sampling of {@link RoverPhotoParser#sample(byte[], Map, RecentItems, java.util.random.RandomGenerator)}
+ * on a synthetic feed whose cameras have numbers of photos unrelated to their weights.
+ */
+class RoverPhotoParserTest {
+    private static final Map<String, Integer> CAMERA_WEIGHTS = Map.of("FHAZ", 3, "RHAZ", 1);
+    /**
+     * 5 FHAZ photos (IDs 0-4), 20 RHAZ photos (IDs 5-24) and 10 photos of the unweighted MAST (IDs 25-34).
+     */
+    private static final byte[] FEED = createFeed(Map.of("FHAZ", 5, "RHAZ", 20, "MAST", 10));
+    private static final int SAMPLES = 20_000;
+    private static final double TOLERANCE = 0.02;
+
+    @Test
+    void samplesCamerasInProportionToTheirWeights() throws IOException {
+        Map<String, Integer> counts = new TreeMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SAMPLES; i++)
+            counts.merge(RoverPhotoParser.sample(FEED, CAMERA_WEIGHTS, new RecentItems(0), random).getCamera().getName(), 1, Integer::sum);
+        assertFalse(counts.containsKey("MAST"), "A camera without a weight was sampled");
+        assertEquals(0.75, (double) counts.get("FHAZ") / SAMPLES, TOLERANCE);
+        assertEquals(0.25, (double) counts.get("RHAZ") / SAMPLES, TOLERANCE);
+    }
+
+    @Test
+    void samplesFreshPhotoOfAnotherCameraIfPickedCameraWasSentRecently() throws IOException {
+        RecentItems recentPhotos = new RecentItems(5);
+        for (long id = 0; id < 5; id++)
+            recentPhotos.add(id);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 1_000; i++)
+            assertEquals("RHAZ", RoverPhotoParser.sample(FEED, CAMERA_WEIGHTS, recentPhotos, random).getCamera().getName());
+    }
+
+    @Test
+    void samplesAllCamerasIfNoneHasWeight() throws IOException {
+        Map<String, Integer> counts = new TreeMap<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 3_000; i++)
+            counts.merge(RoverPhotoParser.sample(FEED, Map.of(), new RecentItems(0), random).getCamera().getName(), 1, Integer::sum);
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertEquals(1.0 / 3, count / 3_000.0, 0.05));
+    }
+
+    @Test
+    void sameSeedSamplesSamePhotos() throws IOException {
+        SplittableRandom first = new SplittableRandom(7);
+        SplittableRandom second = new SplittableRandom(7);
+        for (int i = 0; i < 100; i++) {
+            MarsPhotos photo = RoverPhotoParser.sample(FEED, CAMERA_WEIGHTS, new RecentItems(0), first);
+            assertEquals(photo.getId(), RoverPhotoParser.sample(FEED, CAMERA_WEIGHTS, new RecentItems(0), second).getId());
+        }
+    }
+
+    @Test
+    void samplesNothingFromEmptyFeed() throws IOException {
+        byte[] feed = "{\"photos\":[]}".getBytes(StandardCharsets.UTF_8);
+        assertNull(RoverPhotoParser.sample(feed, CAMERA_WEIGHTS, new RecentItems(0), new SplittableRandom(42)));
+        assertTrue(RoverPhotoParser.filter(feed, CAMERA_WEIGHTS.keySet()).isEmpty());
+    }
+
+    /**
+     * Creates a feed with the specified numbers of photos per camera, numbered from 0 in the order of the camera names.
+     *
+     * @param photosPerCamera the map of camera names to their numbers of photos.
+     * @return the body of the feed.
+     */
+    private static byte[] createFeed(Map<String, Integer> photosPerCamera) {
+        StringBuilder feed = new StringBuilder("{\"photos\":[");
+        int id = 0;
+        for (Map.Entry<String, Integer> camera : new TreeMap<>(photosPerCamera).entrySet())
+            for (int i = 0; i < camera.getValue(); i++, id++)
+                feed.append(id == 0 ? "" : ",").append("{\"id\":").append(id).append(",\"camera\":{\"name\":\"")
+                        .append(camera.getKey()).append("\"},\"img_src\":\"https://mars.nasa.gov/").append(id).append(".jpg\"}");
+        return feed.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}